@@ -0,0 +1,40 @@
+/**
+ * Tact for Processing example
+ * Studio NAND (http://www.nand.io), Okt 2014
+ *
+ * https://github.com/StudioNAND/tact-processing 
+ */
+
+import creativecoding.tact.*;
+import processing.serial.*;
+
+Tact tact;
+TactDashboard dashboard;
+
+void setup() {
+  
+  size(1200, 800, P2D);
+  
+  // Create new Tact toolkit
+  tact = new Tact(this, 5);
+  
+  // Lay out 16 sensors in a grid of 4 columns
+  dashboard = new TactDashboard(this, 20, 20, width - 40, height - 40, 4);
+  
+  for (int i=0; i < 16; i++) {
+    TactSensor sensor = tact.addSensor(i, 48, 32, 2);
+    dashboard.add(sensor);
+  }
+  
+  // Start listing on Serial port
+  tact.startUpdates();
+}
+
+void draw() {
+  // Clear background
+  background(255);
+  
+  // Render spectrum, bias and peak of all 
+  // sensors in a few batched passes
+  dashboard.draw();
+}
@@ -0,0 +1,72 @@
+/**
+ * Tact for Processing example
+ * Studio NAND (http://www.nand.io), Okt 2014
+ *
+ * https://github.com/StudioNAND/tact-processing 
+ */
+
+import creativecoding.tact.*;
+import processing.serial.*;
+
+// Time each mode is measured for
+int duration = 10000;
+
+Tact tact;
+TactSensor sensor;
+
+// 0: default mode, 1: busy polling, 2: done
+int phase = 0;
+int phaseStart;
+float[] p99 = new float[2];
+
+void setup() {
+  
+  size(400, 200);
+  
+  // Create new Tact toolkit
+  tact = new Tact(this, 5);
+  
+  // A short response makes the difference 
+  // between both modes most visible
+  sensor = tact.addSensor(0, 44, 32, Tact.BIAS);
+  
+  // Start with the default mode, sleeping 
+  // between requests
+  tact.startUpdates();
+  phaseStart = millis();
+}
+
+void draw() {
+  
+  background(0);
+  
+  if (phase < 2 && millis() - phaseStart > duration) {
+    
+    // 99th percentile of request-to-event latency
+    p99[phase] = sensor.latency().histogram(TactLatency.TOTAL).percentile(99);
+    println((phase == 0 ? "default  " : "busyPoll ") + sensor.latency().histogram(TactLatency.TOTAL));
+    
+    tact.stopUpadtes();
+    phase++;
+    
+    if (phase == 1) {
+      // Give the update thread a moment to end 
+      // before reopening the port
+      delay(500);
+      
+      // Measure again, spinning on the port
+      sensor.latency().clear();
+      tact.busyPoll = true;
+      tact.startUpdates();
+      phaseStart = millis();
+    }else{
+      println("p99 default " + p99[0] + " ms, busyPoll " + p99[1] + " ms");
+    }
+  }
+  
+  String[] labels = {"default", "busyPoll"};
+  for (int i=0; i < 2; i++) {
+    String value = (phase > i) ? p99[i] + " ms" : (phase == i ? "measuring ..." : "");
+    text(labels[i] + " p99: " + value, 20, 40 + i * 30);
+  }
+}
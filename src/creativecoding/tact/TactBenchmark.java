@@ -0,0 +1,416 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import processing.core.PApplet;
+import processing.core.PGraphics;
+
+/**
+ * <p>A <code>TactBenchmark</code> measures the rendering cost of
+ * <code>TactGraph</code> without a running sketch or sensor.</p>
+ * 
+ * <p>Each run draws one view - spectrum, bins, bias or peak - into an
+ * offscreen <code>PGraphics</code> for a number of frames, feeding the
+ * sensor with a new spectrum before every frame. Only the drawing is
+ * measured; it reports frames per second and the bytes allocated per
+ * frame by the rendering thread, where the JVM provides that figure.
+ * OpenGL renderers only queue drawing commands, so every frame ends by
+ * reading back the pixels, which waits for the GPU to finish (see
+ * {@link #readBack}).
+ * Input is either synthetic or replayed from a state file written by
+ * {@link Tact#persist(String)}.</p>
+ * <pre>
+ * java -cp core.jar:tact.jar creativecoding.tact.TactBenchmark [frames] [state-file]
+ * </pre>
+ * <p>or from within a sketch:</p>
+ * <pre>
+ * TactBenchmark benchmark = new TactBenchmark(this);
+ * benchmark.runAll();
+ * </pre>
+ * <p>With Processing 2 the sketch class is an AWT applet, so the command
+ * line variant needs a display, e.g. a virtual one via
+ * <code>xvfb-run</code>. OpenGL renderers are only measured where an
+ * offscreen context can be created; otherwise they are reported as
+ * skipped.</p>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactGraph
+ * @since 0.3
+ */
+public class TactBenchmark {
+
+	public static final String VIEW_SPECTRUM = "spectrum";
+	public static final String VIEW_BINS = "bins";
+	public static final String VIEW_BIAS = "bias";
+	public static final String VIEW_PEAK = "peak";
+
+	/**
+	 * Renderers, diagram sizes and history lengths covered by <code>runAll()</code>.
+	 */
+	private static final String[] RENDERERS = {PApplet.JAVA2D, PApplet.P2D};
+	private static final String[] VIEWS = {VIEW_SPECTRUM, VIEW_BINS, VIEW_BIAS, VIEW_PEAK};
+	private static final int[][] SIZES = {{400, 300}, {1200, 800}};
+	private static final int[] HISTORY_LENGTHS = {TactConstants.DEFAULT_HISTORY_LENGTH, 16384};
+
+	/**
+	 * Number of bins used by the bins view.
+	 */
+	private static final int BINS = 8;
+
+	private PApplet parent;
+
+	/**
+	 * Number of measured frames per run.
+	 */
+	public int frames = 300;
+
+	/**
+	 * Number of frames rendered before measuring, giving
+	 * the JIT compiler time to settle.
+	 */
+	public int warmup = 100;
+
+	/**
+	 * Flag for reading back the pixels after every frame. Without it,
+	 * OpenGL renderers such as <code>P2D</code> are only measured
+	 * submitting their drawing commands, not executing them. Reading
+	 * back adds the cost of a pixel transfer to all renderers.
+	 */
+	public boolean readBack = true;
+
+	/**
+	 * Recorded sensor state to replay, <code>null</code> for synthetic data.
+	 */
+	private byte[] recording;
+
+	/**
+	 * Copy of the spectra loaded from the recording. Replaying from
+	 * the sensor's own buffer would feed it with spectra it is
+	 * overwriting at the same time.
+	 */
+	private float[][] recorded;
+
+	private final Random random = new Random (0);
+
+	/**
+	 * Bytes allocated by a thread, looked up via reflection
+	 * as it is not available on every JVM.
+	 */
+	private Object threadBean;
+	private Method allocatedBytes;
+
+	/**
+	 * Creates a benchmark.
+	 * 
+	 * @param parent Processing sketch instance, used for creating graphics.
+	 * @since 0.3
+	 */
+	public TactBenchmark (PApplet parent) {
+		this.parent = parent;
+
+		try {
+			threadBean = ManagementFactory.getThreadMXBean ();
+			allocatedBytes = Class.forName ("com.sun.management.ThreadMXBean").getMethod ("getThreadAllocatedBytes", long.class);
+			if (!allocatedBytes.getDeclaringClass ().isInstance (threadBean))
+				allocatedBytes = null;
+		}catch (Exception e) {
+			// Allocation will be reported as unknown ...
+			allocatedBytes = null;
+		}
+	}
+
+	/**
+	 * Replays the first sensor of a state file written by
+	 * {@link Tact#persist(String)} instead of synthetic data.
+	 * 
+	 * @param filename path of the state file.
+	 * @throws IOException if the file can not be read.
+	 * @since 0.3
+	 */
+	public void replay (final String filename) throws IOException {
+		final DataInputStream in = new DataInputStream (new BufferedInputStream (new FileInputStream (filename)));
+		try {
+			in.readInt ();
+			in.readInt ();
+			if (in.readInt () < 1)
+				throw new IOException ("No sensor state in " + filename);
+			recording = new byte[in.readInt ()];
+			in.readFully (recording);
+		}finally {
+			in.close ();
+		}
+	}
+
+	/**
+	 * Runs all combinations of renderers, views, diagram sizes, history
+	 * lengths and axis caching, printing one line per run.
+	 * 
+	 * @since 0.3
+	 */
+	public void runAll () {
+		System.out.println (Result.HEADER);
+
+		for (String renderer : RENDERERS) {
+			if (!isAvailable (renderer)) {
+				System.out.println (renderer + " not available, skipped.");
+				continue;
+			}
+			for (int[] size : SIZES) {
+				for (int history : HISTORY_LENGTHS) {
+					for (String view : VIEWS) {
+						for (int c=0; c < 2; c++) {
+							final Result r = run (renderer, view, size[0], size[1], history, c == 0);
+							if (r != null)
+								System.out.println (r);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if an offscreen context can be created for a renderer.
+	 */
+	private boolean isAvailable (final String renderer) {
+		try {
+			final PGraphics canvas = parent.createGraphics (16, 16, renderer);
+			canvas.beginDraw ();
+			canvas.endDraw ();
+			return true;
+		}catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Measures one view.
+	 * 
+	 * @param renderer Processing renderer such as <code>JAVA2D</code> or <code>P2D</code>.
+	 * @param view one of the <code>VIEW_*</code> constants.
+	 * @param width diagram width.
+	 * @param height diagram height.
+	 * @param historyLength bias and peak history length of the sensor.
+	 * @param cacheAxis value of {@link TactGraph#cacheAxis} to measure with.
+	 * @return measured figures, <code>null</code> if the renderer is not available.
+	 * @since 0.3
+	 */
+	public Result run (final String renderer, final String view, final int width, final int height, final int historyLength, final boolean cacheAxis) {
+		final PGraphics canvas;
+		try {
+			canvas = parent.createGraphics (width, height, renderer);
+			canvas.beginDraw ();
+			canvas.endDraw ();
+		}catch (Throwable e) {
+			// No offscreen context for this renderer
+			return null;
+		}
+
+		final TactSensor sensor = sensor (historyLength);
+		final TactGraph graph = new TactGraph (parent, 0, 0, width, height);
+		graph.canvas (canvas);
+		graph.cacheAxis = cacheAxis;
+
+		final float[] values = new float[sensor.readings ()];
+		final long thread = Thread.currentThread ().getId ();
+
+		long nanos = 0;
+		long bytes = 0;
+
+		for (int f=0; f < warmup + frames; f++) {
+			feed (sensor, values, f);
+
+			final long allocated = allocated (thread);
+			final long t = System.nanoTime ();
+
+			canvas.beginDraw ();
+			canvas.background (255);
+			if (view.equals (VIEW_SPECTRUM))
+				graph.spectrum (sensor);
+			else if (view.equals (VIEW_BINS))
+				graph.spectrum (sensor, BINS);
+			else if (view.equals (VIEW_BIAS))
+				graph.bias (sensor);
+			else if (view.equals (VIEW_PEAK))
+				graph.peak (sensor);
+			canvas.endDraw ();
+			if (readBack)
+				canvas.loadPixels ();
+
+			if (f >= warmup) {
+				nanos += System.nanoTime () - t;
+				bytes += allocated (thread) - allocated;
+			}
+		}
+
+		return new Result (renderer, view, width, height, historyLength, cacheAxis,
+			frames * 1e9f / Math.max (nanos, 1), (allocatedBytes != null) ? bytes / frames : -1);
+	}
+
+	/**
+	 * Creates a sensor with filled histories, either
+	 * from the recorded state or synthetic.
+	 */
+	private TactSensor sensor (final int historyLength) {
+		recorded = null;
+		if (recording != null) {
+			try {
+				// State header: pin, mode, start, readings, step
+				final DataInputStream header = new DataInputStream (new ByteArrayInputStream (recording));
+				final int pin = header.readInt ();
+				final String mode = header.readUTF ();
+				final TactSensor s = new TactSensor (pin, header.readInt (), header.readInt (), header.readInt (), mode);
+				s.historyLength (historyLength);
+				s.loadState (new DataInputStream (new ByteArrayInputStream (recording)));
+
+				int n = 0;
+				recorded = new float[s.length ()][];
+				for (TactSpectrum spectrum : s.buffer)
+					if (spectrum != null)
+						recorded[n++] = spectrum.values.clone ();
+				if (n < recorded.length)
+					recorded = Arrays.copyOf (recorded, n);
+				return s;
+			}catch (IOException e) {
+				System.err.println ("[Tact] Could not replay recorded state: " + e.getMessage ());
+			}
+		}
+
+		final TactSensor s = new TactSensor (0);
+		s.historyLength (historyLength);
+		final float[] values = new float[s.readings ()];
+		for (int i=0; i < historyLength; i++)
+			feed (s, values, i);
+		return s;
+	}
+
+	/**
+	 * Pushes the next spectrum: the next recorded one if
+	 * available, a noisy moving bump otherwise.
+	 */
+	private void feed (final TactSensor sensor, final float[] values, final int frame) {
+		final float[] spectrum = (recording != null && recorded != null && recorded.length > 0) ? recorded[frame % recorded.length] : null;
+
+		if (spectrum != null && spectrum.length == values.length) {
+			System.arraycopy (spectrum, 0, values, 0, values.length);
+		}else{
+			final float center = values.length * (0.5f + 0.4f * (float) Math.sin (frame * 0.05));
+			for (int i=0; i < values.length; i++) {
+				final float d = (i - center) / (values.length * 0.15f);
+				values[i] = TactConstants.AMPLITUDE_MAX * (0.8f * (float) Math.exp (-d * d) + 0.1f * random.nextFloat ());
+			}
+		}
+		sensor.push (sensor.obtainSpectrum (frame, values, values.length));
+	}
+
+	private long allocated (final long thread) {
+		if (allocatedBytes == null)
+			return 0;
+		try {
+			return ((Long) allocatedBytes.invoke (threadBean, thread)).longValue ();
+		}catch (Exception e) {
+			allocatedBytes = null;
+			return 0;
+		}
+	}
+
+	/**
+	 * Figures of one benchmark run.
+	 */
+	public static class Result {
+
+		static final String HEADER = "renderer  view      width height  history  axis-cache       fps  bytes/frame";
+
+		public final String renderer;
+		public final String view;
+		public final int width;
+		public final int height;
+		public final int historyLength;
+		public final boolean cacheAxis;
+
+		/**
+		 * Rendered frames per second, drawing only.
+		 */
+		public final float fps;
+
+		/**
+		 * Bytes allocated per frame, -1 if not supported by the JVM.
+		 */
+		public final long bytesPerFrame;
+
+		Result (final String renderer, final String view, final int width, final int height, final int historyLength,
+				final boolean cacheAxis, final float fps, final long bytesPerFrame) {
+			this.renderer = renderer;
+			this.view = view;
+			this.width = width;
+			this.height = height;
+			this.historyLength = historyLength;
+			this.cacheAxis = cacheAxis;
+			this.fps = fps;
+			this.bytesPerFrame = bytesPerFrame;
+		}
+
+		@Override
+		public String toString () {
+			return String.format (Locale.US, "%-9s %-9s %5d %6d %8d  %-10s %8.1f  %11s",
+				renderer, view, width, height, historyLength, cacheAxis ? "on" : "off", fps,
+				(bytesPerFrame >= 0) ? Long.toString (bytesPerFrame) : "n/a");
+		}
+	}
+
+	/**
+	 * Runs all benchmarks from the command line.
+	 * 
+	 * @param args optional number of frames per run,
+	 *        optional state file to replay.
+	 * @since 0.3
+	 */
+	public static void main (final String[] args) {
+		final TactBenchmark benchmark;
+		try {
+			benchmark = new TactBenchmark (new PApplet ());
+		}catch (Throwable e) {
+			System.err.println ("[Tact] Could not create sketch instance, a display may be required: " + e);
+			return;
+		}
+
+		try {
+			if (args.length > 0)
+				benchmark.frames = Integer.parseInt (args[0]);
+			if (args.length > 1)
+				benchmark.replay (args[1]);
+		}catch (Exception e) {
+			System.err.println ("[Tact] Usage: TactBenchmark [frames] [state-file] (" + e.getMessage () + ")");
+			return;
+		}
+
+		benchmark.runAll ();
+	}
+}
@@ -60,6 +60,11 @@ public interface TactConstants {
 	public static final int DEFAULT_SPECTRUM_START = 32;
 	public static final int DEFAULT_SPECTRUM_STEP = 1;
 	
+	/**
+	 * Default number of values kept in the bias and peak histories.
+	 */
+	public static final int DEFAULT_HISTORY_LENGTH = 1024;
+	
 	public static final String DEFAULT_MODE = SPECTRUM;
 	
 	public static final int PROTOCOL_COMMAND_COUNT_LIMIT = 10;
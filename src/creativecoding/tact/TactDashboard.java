@@ -0,0 +1,407 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.util.ArrayList;
+
+import processing.core.PApplet;
+import processing.core.PFont;
+import processing.core.PGraphics;
+
+/**
+ * <p>A util class to render many <code>Tact</code> sensors at once.</p>
+ * 
+ * <p>Sensors are laid out in a grid of cells. Within a cell, spectrum,
+ * bias and peak are plotted in bands of their own, stacked from top to
+ * bottom. Frames, helper lines and
+ * titles of all cells are rendered once into a shared offscreen layer.
+ * The data is drawn in batched passes: one shape holding the spectra of
+ * all sensors, one for all bias traces and one for all peak traces, each
+ * with a single style change. Frame time therefore stays roughly flat
+ * when sensors are added.</p>
+ * <pre>
+ * TactDashboard dashboard = new TactDashboard(this, 0, 0, width, height, 4);
+ * for (int i=0; i < 16; i++)
+ *    dashboard.add(tact.addSensor(i));
+ * ...
+ * dashboard.draw();
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactGraph
+ * @since 0.3
+ */
+public class TactDashboard {
+
+	/**
+	 * Height of the title strip on top of each cell.
+	 */
+	private static final int TITLE_HEIGHT = 16;
+
+	/**
+	 * Number of horizontal helper lines per cell.
+	 */
+	private static final int HELPER_NUM = 4;
+
+	/**
+	 * Space between the plot bands of a cell.
+	 */
+	private static final int BAND_GAP = 4;
+
+	private PApplet parent;
+
+	/**
+	 * Dashboard x position in sketch canvas.
+	 */
+	public float x = 0;
+	/**
+	 * Dashboard y position in sketch canvas.
+	 */
+	public float y = 0;
+	/**
+	 * Dashboard total width.
+	 */
+	public float width = 800;
+	/**
+	 * Dashboard total height.
+	 */
+	public float height = 600;
+	/**
+	 * Number of cells per row.
+	 */
+	public int columns = 4;
+	/**
+	 * Space between cells in pixel.
+	 */
+	public float gap = 10;
+
+	/**
+	 * Flag for plotting the latest spectrum of each sensor.
+	 */
+	public boolean displaySpectrum = true;
+	/**
+	 * Flag for plotting the bias history of each sensor.
+	 */
+	public boolean displayBias = true;
+	/**
+	 * Flag for plotting the peak history of each sensor.
+	 */
+	public boolean displayPeak = true;
+	/**
+	 * Flag for showing the sensor pin on top of each cell.
+	 */
+	public boolean displayTitle = true;
+
+	/**
+	 * Sensors in order of their cells.
+	 */
+	private ArrayList<TactSensor> sensors = new ArrayList<TactSensor> ();
+
+	/**
+	 * Colors used for rendering, resolved like those of <code>TactGraph</code>.
+	 */
+	private final TactTheme.Binding palette = new TactTheme.Binding ();
+
+	/**
+	 * Offscreen layer holding frames, helpers and titles of all cells.
+	 */
+	private PGraphics chrome;
+	private boolean chromeDirty = true;
+	private float[] chromeKey = new float[6];
+	private TactTheme chromePalette;
+	private PFont chromeFont;
+	private boolean chromeTitle;
+	private int chromeBands;
+
+	/**
+	 * Reused indices of decimated series values.
+	 */
+	private int[] decimated = new int[0];
+
+	/**
+	 * Creates a dashboard.
+	 * 
+	 * @param parent Processing sketch instance
+	 * @param x dashboard x position
+	 * @param y dashboard y position
+	 * @param width dashboard total width
+	 * @param height dashboard total height
+	 * @param columns number of cells per row
+	 * @since 0.3
+	 */
+	public TactDashboard (PApplet parent, final float x, final float y, final float width, final float height, final int columns) {
+		this.parent = parent;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.columns = columns;
+
+		TactGraph.initThemes ();
+	}
+
+	/**
+	 * Adds a sensor to the next free cell.
+	 * 
+	 * @param sensor to display.
+	 * @since 0.3
+	 */
+	public void add (final TactSensor sensor) {
+		sensors.add (sensor);
+		chromeDirty = true;
+	}
+
+	/**
+	 * Removes a sensor; following cells move up.
+	 * 
+	 * @param sensor to remove.
+	 * @since 0.3
+	 */
+	public void remove (final TactSensor sensor) {
+		sensors.remove (sensor);
+		chromeDirty = true;
+	}
+
+	/**
+	 * Number of displayed sensors.
+	 * 
+	 * @return sensor count as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int size () {
+		return sensors.size ();
+	}
+
+	/**
+	 * Assigns a palette to this dashboard only.
+	 * 
+	 * @param palette colors to render with, or <code>null</code>
+	 *        to follow the shared {@link TactGraph#theme} again.
+	 * @since 0.3
+	 */
+	public void theme (final TactTheme palette) {
+		this.palette.assign (palette);
+	}
+
+	/**
+	 * Present palette of this dashboard.
+	 * 
+	 * @return colors used for rendering as {@link TactTheme}.
+	 * @since 0.3
+	 */
+	public TactTheme palette () {
+		return palette.resolve ();
+	}
+
+	/**
+	 * Renders all sensors.
+	 * 
+	 * @since 0.3
+	 */
+	public void draw () {
+		final int n = sensors.size ();
+		if (n == 0 || columns < 1)
+			return;
+
+		final TactTheme palette = palette ();
+		final int rows = (n + columns - 1) / columns;
+		final float cellWidth = (width - gap * (columns - 1)) / columns;
+		final float cellHeight = (height - gap * (rows - 1)) / rows;
+		final float plotHeight = cellHeight - (displayTitle ? TITLE_HEIGHT : 0);
+		final int plotColumns = Math.max ((int) cellWidth, 1);
+		final int bands = bands ();
+		final float bandHeight = bandHeight (plotHeight, bands);
+		int band = 0;
+
+		if (decimated.length < plotColumns * 2)
+			decimated = new int[plotColumns * 2];
+
+		drawChrome (palette, rows, cellWidth, cellHeight, bands);
+
+		parent.g.noFill ();
+		parent.g.strokeWeight (1);
+
+		// All spectra in one shape
+		if (displaySpectrum) {
+			final float lift = lift (band++, bands, bandHeight);
+			parent.g.stroke (palette.graph);
+			parent.g.beginShape (PGraphics.LINES);
+			for (int k=0; k < n; k++) {
+				final float[] values = sensors.get (k).latestValues ();
+				final float cx = x + (k % columns) * (cellWidth + gap);
+				final float cy = y + (k / columns) * (cellHeight + gap) + cellHeight - lift;
+				final float xStep = cellWidth / Math.max (values.length - 1, 1);
+				final float yStep = bandHeight / TactConstants.AMPLITUDE_MAX;
+
+				for (int i=1; i < values.length; i++) {
+					parent.g.vertex (cx + xStep * (i-1), cy - yStep * values[i-1]);
+					parent.g.vertex (cx + xStep * i, cy - yStep * values[i]);
+				}
+			}
+			parent.g.endShape ();
+		}
+
+		// All bias traces in one shape
+		if (displayBias) {
+			final float lift = lift (band++, bands, bandHeight);
+			parent.g.stroke (palette.binStroke);
+			parent.g.beginShape (PGraphics.LINES);
+			for (int k=0; k < n; k++)
+				trace (sensors.get (k).bias, k, cellWidth, cellHeight, lift, bandHeight, plotColumns);
+			parent.g.endShape ();
+		}
+
+		// All peak traces in one shape
+		if (displayPeak) {
+			final float lift = lift (band++, bands, bandHeight);
+			parent.g.stroke (palette.axisGuide);
+			parent.g.beginShape (PGraphics.LINES);
+			for (int k=0; k < n; k++)
+				trace (sensors.get (k).peak, k, cellWidth, cellHeight, lift, bandHeight, plotColumns);
+			parent.g.endShape ();
+		}
+	}
+
+	/**
+	 * Number of plot bands per cell, one for each displayed series.
+	 */
+	private int bands () {
+		return (displaySpectrum ? 1 : 0) + (displayBias ? 1 : 0) + (displayPeak ? 1 : 0);
+	}
+
+	/**
+	 * Height of one plot band within the given plot height.
+	 */
+	private static float bandHeight (final float plotHeight, final int bands) {
+		return (bands > 1) ? (plotHeight - BAND_GAP * (bands - 1)) / bands : plotHeight;
+	}
+
+	/**
+	 * Distance from the bottom of a cell to the baseline of a band, 
+	 * counting bands from the top.
+	 */
+	private static float lift (final int band, final int bands, final float bandHeight) {
+		return (bands - 1 - band) * (bandHeight + BAND_GAP);
+	}
+
+	/**
+	 * Adds the line segments of a history in the range of 0 to 1 to
+	 * the present <code>LINES</code> shape, decimated to the cell width. 
+	 * The baseline lies <code>lift</code> above the bottom of the cell.
+	 */
+	private void trace (final float[] values, final int cell, final float cellWidth, final float cellHeight, final float lift, final float plotHeight, final int plotColumns) {
+		if (values.length < 2)
+			return;
+
+		final float cx = x + (cell % columns) * (cellWidth + gap);
+		final float cy = y + (cell / columns) * (cellHeight + gap) + cellHeight - lift;
+		final float xStep = cellWidth / (values.length - 1);
+
+		if (values.length > plotColumns * 2) {
+			final int m = TactGraph.decimate (values, 0, values.length, plotColumns, decimated);
+			for (int k=1; k < m; k++) {
+				final int i0 = decimated[k-1];
+				final int i1 = decimated[k];
+				parent.g.vertex (cx + xStep * i0, cy - plotHeight * values[i0]);
+				parent.g.vertex (cx + xStep * i1, cy - plotHeight * values[i1]);
+			}
+		}else{
+			for (int i=1; i < values.length; i++) {
+				parent.g.vertex (cx + xStep * (i-1), cy - plotHeight * values[i-1]);
+				parent.g.vertex (cx + xStep * i, cy - plotHeight * values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Draws frames, helper lines and titles of all cells from the
+	 * shared layer, rendering it first if the layout has changed.
+	 */
+	private void drawChrome (final TactTheme palette, final int rows, final float cellWidth, final float cellHeight, final int bands) {
+		final float left = (float) Math.floor (x);
+		final float top = (float) Math.floor (y);
+
+		if (chrome == null || chromeDirty || chromePalette != palette || chromeFont != parent.g.textFont || chromeTitle != displayTitle || chromeBands != bands
+				|| chromeKey[0] != x || chromeKey[1] != y || chromeKey[2] != width
+				|| chromeKey[3] != height || chromeKey[4] != columns || chromeKey[5] != gap) {
+
+			final int w = (int) Math.ceil (width) + 2;
+			final int h = (int) Math.ceil (height) + 2;
+			if (chrome == null || chrome.width != w || chrome.height != h)
+				chrome = TactGraph.createLayer (parent, w, h);
+
+			final float ox = x - left;
+			final float oy = y - top;
+
+			chrome.beginDraw ();
+			chrome.clear ();
+			if (parent.g.textFont != null)
+				chrome.textFont (parent.g.textFont);
+			chrome.textSize (10);
+			chrome.strokeWeight (1);
+
+			for (int k=0; k < sensors.size (); k++) {
+				final float cx = ox + (k % columns) * (cellWidth + gap);
+				final float cy = oy + (k / columns) * (cellHeight + gap);
+				final float plotTop = cy + (displayTitle ? TITLE_HEIGHT : 0);
+				final float plotHeight = cy + cellHeight - plotTop;
+				final float bandHeight = bandHeight (plotHeight, bands);
+
+				// Helpers and baseline of each band
+				for (int b=0; b < Math.max (bands, 1); b++) {
+					final float baseline = cy + cellHeight - lift (b, bands, bandHeight);
+
+					chrome.stroke (palette.axisHelper);
+					for (int i=1; i < HELPER_NUM; i++) {
+						final float yp = baseline - bandHeight * i / HELPER_NUM;
+						chrome.line (cx, yp, cx + cellWidth, yp);
+					}
+
+					chrome.stroke (palette.axisLine);
+					chrome.line (cx, baseline - bandHeight, cx, baseline);
+					chrome.line (cx, baseline, cx + cellWidth, baseline);
+				}
+
+				if (displayTitle) {
+					chrome.fill (palette.titleFill);
+					chrome.text ("Sensor " + sensors.get (k).pin (), cx + 2, cy + TITLE_HEIGHT - 4);
+				}
+			}
+			chrome.endDraw ();
+
+			chromeDirty = false;
+			chromePalette = palette;
+			chromeFont = parent.g.textFont;
+			chromeTitle = displayTitle;
+			chromeBands = bands;
+			chromeKey[0] = x;
+			chromeKey[1] = y;
+			chromeKey[2] = width;
+			chromeKey[3] = height;
+			chromeKey[4] = columns;
+			chromeKey[5] = gap;
+		}
+
+		parent.g.pushStyle ();
+		parent.g.imageMode (PGraphics.CORNER);
+		parent.g.noTint ();
+		parent.g.image (chrome, left, top);
+		parent.g.popStyle ();
+	}
+}
@@ -32,13 +32,66 @@ public class TactEvent extends EventObject {
 	
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * Sensor the event originates from. This is the live instance; 
+	 * listeners running on a thread of their own may find it 
+	 * already updated by later frames.
+	 * @see Tact#addTactListener(TactListener, boolean)
+	 */
 	public final TactSensor sensor;
 	
 	public final String type;
 	
+	/**
+	 * Points in time (<code>System.nanoTime()</code>) at which the 
+	 * request of this frame has been sent, the first byte of its 
+	 * response has been read and the frame has been decoded. 
+	 * 0 if unknown.
+	 * 
+	 * @see TactLatency
+	 * @since 0.3
+	 */
+	public final long requestTime;
+	public final long receiveTime;
+	public final long decodeTime;
+	
+	private long deliverTime = 0;
+	
 	public TactEvent (final Object source, final String type, final TactSensor sensor) {
+		this (source, type, sensor, 0, 0, 0);
+	}
+	
+	/**
+	 * @since 0.3
+	 */
+	public TactEvent (final Object source, final String type, final TactSensor sensor, final long requestTime, final long receiveTime, final long decodeTime) {
 		super (source);
 		this.sensor = sensor;
 		this.type = type;
+		this.requestTime = requestTime;
+		this.receiveTime = receiveTime;
+		this.decodeTime = decodeTime;
+	}
+	
+	/**
+	 * Point in time (<code>System.nanoTime()</code>) at which this 
+	 * event has first been delivered to the sketch or a listener.
+	 * 
+	 * @return 0 if not delivered yet.
+	 * @since 0.3
+	 */
+	public synchronized long deliverTime () {
+		return deliverTime;
+	}
+	
+	/**
+	 * Marks the event as delivered, recording its latencies 
+	 * with the sensor on the first delivery only.
+	 */
+	synchronized void delivered () {
+		if (deliverTime != 0)
+			return;
+		deliverTime = System.nanoTime ();
+		sensor.latency ().record (this, deliverTime);
 	}
 }
\ No newline at end of file
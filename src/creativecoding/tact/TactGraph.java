@@ -18,10 +18,14 @@
 
 package creativecoding.tact;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import processing.core.PApplet;
+import processing.core.PFont;
 import processing.core.PGraphics;
+import processing.core.PImage;
 
 /**
  * <p>A util class to render <code>Tact</code> data diagrams.</p>
@@ -74,10 +78,40 @@ public class TactGraph {
 	private static final int AXIS_MARKER_Y_LENGTH = 4;
 	
 	/**
-	 * Theme for colorizing all present <code>TactGraph</code> instances.
+	 * Space around the diagram within the cached axis 
+	 * layer, leaving room for overlapping labels.
+	 */
+	private static final int AXIS_LAYER_MARGIN = 40;
+	
+	/**
+	 * View identifiers of cached renderings.
+	 */
+	private static final int VIEW_SPECTRUM = 0;
+	private static final int VIEW_BIAS = 1;
+	private static final int VIEW_PEAK = 2;
+	private static final int VIEW_BIAS_TREND = 3;
+	private static final int VIEW_PEAK_TREND = 4;
+	
+	/**
+	 * Number of line vertices of the axes when drawn directly: 
+	 * two axes, a marker per label and a helper between labels.
+	 */
+	private static final int AXIS_VERTICES = 2 * (2 + AXIS_MARKER_X_NUM * 2 + 1 + AXIS_MARKER_Y_NUM * 2 + 1);
+	
+	/**
+	 * Theme for colorizing all present <code>TactGraph</code> instances. 
+	 * Each graph resolves this map into a {@link TactTheme} palette when 
+	 * a different map is assigned. After modifying the assigned map in 
+	 * place, call {@link #themeChanged()} to have it resolved again.
 	 */
 	public static HashMap<String, Integer> theme;
 	
+	/**
+	 * Incremented by <code>themeChanged()</code>, so graphs 
+	 * also re-resolve a shared theme modified in place.
+	 */
+	static volatile int themeRevision = 0;
+	
 	/**
 	 * Theme based on dark colors for bright backgrounds.
 	 */
@@ -89,6 +123,12 @@ public class TactGraph {
 	
 	private PApplet parent;
 	
+	/**
+	 * Resolved colors used for rendering, either of this 
+	 * instance only or of the shared <code>theme</code>.
+	 */
+	private final TactTheme.Binding palette = new TactTheme.Binding ();
+	
 	/**
 	 * Diagram x position in sketch canvas.
 	 */
@@ -136,11 +176,114 @@ public class TactGraph {
 	 */
 	public boolean displayTitle = true;
 	
+	/**
+	 * Flag for reducing long series to about two points per 
+	 * horizontal pixel, the minimum and maximum of each column. 
+	 * This bounds the number of vertices by the plot width 
+	 * while preserving all peaks.
+	 * 
+	 * @since 0.3
+	 */
+	public boolean decimate = true;
+	
+	/**
+	 * Reused indices of decimated series values.
+	 */
+	private int[] decimated = new int[0];
+	
+	/**
+	 * Pixel ring of the waterfall diagram.
+	 */
+	private PImage waterfall;
+	private TactSensor waterfallSensor;
+	private long waterfallCount = 0;
+	private int waterfallHead = 0;
+	private int[] waterfallLut = new int[256];
+	private TactTheme waterfallPalette;
+	
+	/**
+	 * Color stops of the waterfall, <code>null</code> 
+	 * for an alpha ramp of the graph color.
+	 */
+	private int[] waterfallStops;
+	
+	/**
+	 * Flag for rendering axes, markers and labels only once into 
+	 * an offscreen layer, which is drawn as image in every frame. 
+	 * The layer is rendered again when position, size, offsets, 
+	 * palette, font or axis ranges change. Layers are created at the 
+	 * sketch's pixel density, so they stay sharp on HiDPI displays. 
+	 * The draw time saved can be measured with 
+	 * <code>TactBenchmark</code>, which runs with and without caching.
+	 * 
+	 * @see TactBenchmark
+	 * @since 0.3
+	 */
+	public boolean cacheAxis = true;
+	
+	/**
+	 * Offscreen layer holding the rendered axes.
+	 */
+	private PGraphics axisLayer;
+	
+	/**
+	 * Geometry and ranges the <code>axisLayer</code> has been rendered for.
+	 */
+	private float[] axisKey = new float[10];
+	private TactTheme axisPalette;
+	private PFont axisTextFont;
+	
+	/**
+	 * Flag for keeping the last rendering of each sensor view in an 
+	 * offscreen layer. As long as the sensor's {@link TactSensor#version()} 
+	 * and the diagram settings stay the same, the layer is drawn as image 
+	 * instead of rendering the diagram again. Useful when sensors update 
+	 * less often than the sketch redraws, e.g. many sensors or long 
+	 * <code>Tact.sleep</code> intervals. Each cached view holds one layer 
+	 * of about the diagram size; see {@link #clearCache()}.
+	 * 
+	 * @since 0.3
+	 */
+	public boolean cacheRender = false;
+	
+	/**
+	 * Cached sensor view renderings.
+	 */
+	private ArrayList<RenderCache> renderCache = new ArrayList<RenderCache> ();
+	
+	/**
+	 * Rendering currently being recorded, <code>null</code> if none.
+	 */
+	private RenderCache recording;
+	private PGraphics recordingCanvas;
+	
+	/**
+	 * Graphics to render onto instead of the sketch canvas.
+	 */
+	private PGraphics canvas;
+	
 	private boolean displayHelper = false;
 	private int helperStrokeWeight = 1;
 	
 	private int segmentStrokeWeight = 3;
 	
+	/**
+	 * Reused per-column buffers for rendering {@link TactPyramid} summaries.
+	 */
+	private float[] trendMin = new float[0];
+	private float[] trendMax = new float[0];
+	private float[] trendMean = new float[0];
+	
+	/**
+	 * Records render timings while assigned, see {@link #profile(boolean)}.
+	 */
+	private TactProfiler profiler;
+	
+	/**
+	 * Running count of vertices emitted by this graph.
+	 */
+	private long vertices = 0;
+	
 	/**
 	 * Creates a graph plotting helper instance. The aim of 
 	 * this class is to provide simple access to <code>TactSensor</code> 
@@ -160,6 +303,39 @@ public class TactGraph {
 		this.width = width;
 		this.height = height;
 		
+		initThemes ();
+	}
+	
+	/**
+	 * Creates an offscreen layer at the pixel density of the sketch. 
+	 * Processing versions without pixel density support get a plain 
+	 * layer, hence the reflective access.
+	 * 
+	 * @param parent sketch the layer is drawn into.
+	 * @param w layer width in sketch coordinates.
+	 * @param h layer height in sketch coordinates.
+	 * @return layer as <code>PGraphics</code>.
+	 */
+	static PGraphics createLayer (final PApplet parent, final int w, final int h) {
+		final PGraphics layer = parent.createGraphics (w, h);
+		try {
+			final int density = PApplet.class.getField ("pixelDensity").getInt (parent);
+			if (density > 1) {
+				// Pixel buffers are sized by the density on resizing
+				PImage.class.getField ("pixelDensity").setInt (layer, density);
+				PGraphics.class.getMethod ("setSize", int.class, int.class).invoke (layer, w, h);
+			}
+		}catch (Exception e) {
+			// Processing without pixel density
+		}
+		return layer;
+	}
+	
+	/**
+	 * Creates the predefined themes and assigns the 
+	 * dark one, unless a theme has been assigned already.
+	 */
+	static void initThemes () {
 		if (theme == null) {
 			dark = new HashMap<String, Integer> ();
 			
@@ -188,6 +364,278 @@ public class TactGraph {
 		}
 	}
 	
+	/**
+	 * Assigns a palette to this graph only. The shared 
+	 * <code>theme</code> will be ignored by this instance 
+	 * until <code>theme((TactTheme) null)</code> is called.
+	 * 
+	 * @param palette colors to render with, or <code>null</code> 
+	 *        to follow the shared <code>theme</code> again.
+	 * @see #theme
+	 * @since 0.3
+	 */
+	public void theme (final TactTheme palette) {
+		this.palette.assign (palette);
+	}
+	
+	/**
+	 * Resolves and assigns a theme map to this graph only. Its colors 
+	 * are taken once; later changes to the map do not apply, not even 
+	 * via <code>themeChanged()</code>. To follow the shared 
+	 * <code>theme</code> again, call <code>theme((TactTheme) null)</code>.
+	 * 
+	 * @param theme map of <code>THEME_*</code> keys to colors.
+	 * @see #theme(TactTheme)
+	 * @since 0.3
+	 */
+	public void theme (final HashMap<String, Integer> theme) {
+		theme (new TactTheme (theme));
+	}
+	
+	/**
+	 * Present palette of this graph.
+	 * 
+	 * @return colors used for rendering as {@link TactTheme}.
+	 * @since 0.3
+	 */
+	public TactTheme palette () {
+		return palette.resolve ();
+	}
+	
+	/**
+	 * Applies changes made in place to the shared <code>theme</code> 
+	 * map. All graphs following the shared theme resolve it again 
+	 * before rendering next.
+	 * <pre>
+	 * TactGraph.theme.put(TactGraph.THEME_GRAPH, color(255, 0, 0));
+	 * TactGraph.themeChanged();
+	 * </pre>
+	 * 
+	 * @see #theme
+	 * @since 0.3
+	 */
+	public static void themeChanged () {
+		themeRevision++;
+	}
+	
+	/**
+	 * Enables or disables recording of render timings. While enabled, 
+	 * each call of <code>spectrum</code>, <code>bias</code>, <code>peak</code>, 
+	 * <code>bins</code>, <code>graph</code> and of the axis and guide 
+	 * helpers is timed and its vertices are counted. Disabled by 
+	 * default, which only costs a <code>null</code> check per call.
+	 * 
+	 * @param enabled <code>true</code> to record timings.
+	 * @see #profiler()
+	 * @see #drawProfile(float, float)
+	 * @since 0.3
+	 */
+	public void profile (final boolean enabled) {
+		if (enabled && profiler == null)
+			profiler = new TactProfiler ();
+		else if (!enabled)
+			profiler = null;
+	}
+	
+	/**
+	 * Recorded render timings of this graph.
+	 * 
+	 * @return profiler as {@link TactProfiler}, <code>null</code> 
+	 *         if profiling is disabled.
+	 * @since 0.3
+	 */
+	public TactProfiler profiler () {
+		return profiler;
+	}
+	
+	/**
+	 * Renders the recorded timings as text overlay, one line per 
+	 * section with median, 95th and 99th percentile in milliseconds 
+	 * and vertices per call. Does nothing if profiling is disabled.
+	 * 
+	 * @param x overlay x position in sketch canvas.
+	 * @param y overlay y position of the first line.
+	 * @since 0.3
+	 */
+	public void drawProfile (final float x, final float y) {
+		final PGraphics g = canvas ();
+		if (profiler == null)
+			return;
+		
+		final TactTheme palette = palette ();
+		final String[] sections = profiler.sections ();
+		
+		g.pushStyle ();
+		g.fill (palette.axisLabel);
+		g.textSize (axisTextSize);
+		for (int i=0; i < sections.length; i++)
+			g.text (profiler.line (sections[i]), x, y + i * axisTextSize * 1.5f);
+		g.popStyle ();
+	}
+	
+	/**
+	 * Renders onto the given graphics instead of the sketch canvas, 
+	 * e.g. an offscreen buffer created via <code>createGraphics()</code>. 
+	 * Calls must then happen between its <code>beginDraw()</code> and 
+	 * <code>endDraw()</code>.
+	 * 
+	 * @param canvas graphics to render onto, or <code>null</code> 
+	 *        to render onto the sketch canvas again.
+	 * @since 0.3
+	 */
+	public void canvas (final PGraphics canvas) {
+		this.canvas = canvas;
+	}
+	
+	/**
+	 * Discards all cached renderings and their layers.
+	 * 
+	 * @see #cacheRender
+	 * @since 0.3
+	 */
+	public void clearCache () {
+		renderCache.clear ();
+	}
+	
+	/**
+	 * Graphics the diagram is currently rendered onto.
+	 */
+	private PGraphics canvas () {
+		return (canvas != null) ? canvas : parent.g;
+	}
+	
+	/**
+	 * Draws a cached rendering of a sensor view if it is still valid. 
+	 * Otherwise redirects rendering into the view's layer and returns 
+	 * <code>false</code>; the caller then renders the view and calls 
+	 * {@link #cacheStore()}. Does nothing if caching is disabled.
+	 * 
+	 * @param variant view parameter such as the number of bins.
+	 * @return <code>true</code> if the view has been drawn from cache.
+	 */
+	private boolean cacheHit (final TactSensor sensor, final long version, final int view, final long variant) {
+		if (!cacheRender || recording != null || sensor == null)
+			return false;
+		
+		RenderCache cache = null;
+		for (int i=0; i < renderCache.size (); i++) {
+			final RenderCache c = renderCache.get (i);
+			if (c.sensor == sensor && c.view == view) {
+				cache = c;
+				break;
+			}
+		}
+		if (cache == null) {
+			cache = new RenderCache (sensor, view);
+			renderCache.add (cache);
+		}
+		
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
+		final float left = (float) Math.floor (x);
+		final float top = (float) Math.floor (y);
+		final float flags = (displayGuides ? 1 : 0) | (displayAxis ? 2 : 0) | (displayTitle ? 4 : 0) 
+				| (decimate ? 8 : 0) | (cacheAxis ? 16 : 0);
+		
+		if (cache.layer == null || cache.version != version || cache.variant != variant || cache.palette != palette || cache.font != g.textFont 
+				|| cache.key[0] != x || cache.key[1] != y || cache.key[2] != width || cache.key[3] != height 
+				|| cache.key[4] != offsetX || cache.key[5] != offsetY || cache.key[6] != flags || cache.key[7] != g.textSize) {
+			
+			final int w = (int) Math.ceil (width) + AXIS_LAYER_MARGIN * 2 + 1;
+			final int h = (int) Math.ceil (height) + AXIS_LAYER_MARGIN * 2 + 1;
+			
+			if (cache.layer == null || cache.layer.width != w || cache.layer.height != h)
+				cache.layer = createLayer (parent, w, h);
+			
+			cache.layer.beginDraw ();
+			cache.layer.clear ();
+			if (g.textFont != null)
+				cache.layer.textFont (g.textFont);
+			cache.layer.textSize (g.textSize);
+			cache.layer.strokeWeight (g.strokeWeight);
+			cache.layer.translate (AXIS_LAYER_MARGIN - left, AXIS_LAYER_MARGIN - top);
+			
+			cache.version = version;
+			cache.variant = variant;
+			cache.palette = palette;
+			cache.font = g.textFont;
+			cache.key[0] = x;
+			cache.key[1] = y;
+			cache.key[2] = width;
+			cache.key[3] = height;
+			cache.key[4] = offsetX;
+			cache.key[5] = offsetY;
+			cache.key[6] = flags;
+			cache.key[7] = g.textSize;
+			
+			recording = cache;
+			recordingCanvas = canvas;
+			canvas = cache.layer;
+			return false;
+		}
+		
+		drawCache (cache);
+		return true;
+	}
+	
+	/**
+	 * Finishes recording a view started by {@link #cacheHit} 
+	 * and draws it onto the canvas.
+	 */
+	private void cacheStore () {
+		if (recording == null)
+			return;
+		
+		final RenderCache cache = recording;
+		recording = null;
+		canvas = recordingCanvas;
+		recordingCanvas = null;
+		cache.layer.endDraw ();
+		drawCache (cache);
+	}
+	
+	/**
+	 * Ends a recording that has not been stored as rendering failed, 
+	 * restoring the canvas and rendering the view again next time. 
+	 * Does nothing after <code>cacheStore()</code>.
+	 */
+	private void cacheAbort () {
+		if (recording == null)
+			return;
+		
+		final RenderCache cache = recording;
+		recording = null;
+		canvas = recordingCanvas;
+		recordingCanvas = null;
+		cache.layer.endDraw ();
+		cache.version = -1;
+	}
+	
+	private void drawCache (final RenderCache cache) {
+		final PGraphics g = canvas ();
+		g.pushStyle ();
+		g.imageMode (PGraphics.CORNER);
+		g.noTint ();
+		g.image (cache.layer, (float) Math.floor (x) - AXIS_LAYER_MARGIN, (float) Math.floor (y) - AXIS_LAYER_MARGIN);
+		g.popStyle ();
+		vertices += 4;
+	}
+	
+	/**
+	 * Start time of a profiled call, 0 if profiling is disabled.
+	 */
+	private long begin () {
+		return (profiler != null) ? System.nanoTime () : 0;
+	}
+	
+	/**
+	 * Records a profiled call that started at <code>start</code>.
+	 */
+	private void end (final String section, final long start, final long vertexStart) {
+		if (profiler != null)
+			profiler.record (section, System.nanoTime () - start, vertices - vertexStart);
+	}
+	
 	/**
 	 * Renders <code>TactSpectrum</code> within the 
 	 * given diagram dimensions. Define a bin resolution 
@@ -204,21 +652,33 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	public void spectrum (final TactSensor sensor, final int bins) {
+		final long start = begin ();
+		final long vertexStart = vertices;
 		
-		// Draw signal segmentation into n-bins 
-		if (bins > 0)
-			bins (new float[][] {sensor.latestSpectrum ().bins (bins)}, TactConstants.AMPLITUDE_MIN, TactConstants.AMPLITUDE_MAX);
-		
-		if (displayGuides)
-			drawGuides (new float[] {sensor.minBias (), sensor.maxBias ()}, new float[] {sensor.minPeak (), sensor.maxPeak ()});
-		
-		if (displayTitle)
-			drawTitle ("Spectrum");
-		
-		graph (sensor.latestValues (), sensor.latestSpectrum ().start, sensor.latestSpectrum ().end, TactConstants.AMPLITUDE_MIN, TactConstants.AMPLITUDE_MAX);
+		if (!cacheHit (sensor, sensor.version (), VIEW_SPECTRUM, bins)) {
+			try {
+				// Draw signal segmentation into n-bins 
+				if (bins > 0)
+					bins (new float[][] {sensor.latestSpectrum ().bins (bins)}, TactConstants.AMPLITUDE_MIN, TactConstants.AMPLITUDE_MAX);
+				
+				if (displayGuides)
+					drawGuides (new float[] {sensor.minBias (), sensor.maxBias ()}, new float[] {sensor.minPeak (), sensor.maxPeak ()});
+				
+				if (displayTitle)
+					drawTitle ("Spectrum");
+				
+				graph (sensor.latestValues (), sensor.latestSpectrum ().start, sensor.latestSpectrum ().end, TactConstants.AMPLITUDE_MIN, TactConstants.AMPLITUDE_MAX);
+				
+				cacheStore ();
+			}finally {
+				cacheAbort ();
+			}
+		}
 		
 		if (displayHelper)
 			drawHelper(sensor);
+		
+		end (TactProfiler.SPECTRUM, start, vertexStart);
 	}
 	
 	/**
@@ -238,6 +698,8 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	public void spectrum (final TactSpectrum spectrum, final int bins) {
+		final long start = begin ();
+		final long vertexStart = vertices;
 		
 		// Draw signal segmentation into n-bins 
 		if (bins > 0)
@@ -247,6 +709,8 @@ public class TactGraph {
 			drawTitle ("Spectrum");
 		
 		graph (spectrum.values, spectrum.start, spectrum.end, TactConstants.AMPLITUDE_MIN, TactConstants.AMPLITUDE_MAX);
+		
+		end (TactProfiler.SPECTRUM, start, vertexStart);
 	}
 	
 	/**
@@ -284,13 +748,9 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	public void bias (final TactSensor sensor) {
-		if (displayGuides)
-			drawGuides (null, new float[] {sensor.minBias (), sensor.maxBias ()});
-		
-		if (displayTitle)
-			drawTitle ("Bias");
-		
-		graph (sensor.bias, 0, sensor.bias.length, 0f, 1f);
+		// Rendered from the published history, which is 
+		// up to date even if sensor.bias is not refreshed
+		bias (sensor.snapshot ());
 	}
 	
 	/**
@@ -303,13 +763,361 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	public void peak (final TactSensor sensor) {
-		if (displayGuides)
-			drawGuides (null, new float[] {sensor.minPeak (), sensor.maxPeak ()});
+		// Rendered from the published history, which is 
+		// up to date even if sensor.peak is not refreshed
+		peak (sensor.snapshot ());
+	}
+	
+	/**
+	 * Renders the latest spectrum of a sensor snapshot. Unlike 
+	 * {@link #spectrum(TactSensor)} this reads a consistent state, 
+	 * even while the serial thread keeps updating the sensor.
+	 * 
+	 * @param snapshot sensor state to render.
+	 * @see TactSensor#snapshot()
+	 * @since 0.3
+	 */
+	public void spectrum (final TactSnapshot snapshot) {
+		final long start = begin ();
+		final long vertexStart = vertices;
 		
-		if (displayTitle)
-			drawTitle ("Peak");
+		if (!cacheHit (snapshot.sensor, snapshot.version, VIEW_SPECTRUM, 0)) {
+			try {
+				if (displayGuides)
+					drawGuides (new float[] {snapshot.minBias, snapshot.maxBias}, new float[] {snapshot.minPeak, snapshot.maxPeak});
+				
+				if (displayTitle)
+					drawTitle ("Spectrum");
+				
+				if (snapshot.spectrum != null)
+					graph (snapshot.spectrum.values, snapshot.spectrum.start, snapshot.spectrum.end, TactConstants.AMPLITUDE_MIN, TactConstants.AMPLITUDE_MAX);
+				cacheStore ();
+			}finally {
+				cacheAbort ();
+			}
+		}
+		
+		end (TactProfiler.SPECTRUM, start, vertexStart);
+	}
+	
+	/**
+	 * Renders the <code>bias</code> history of a sensor snapshot.
+	 * 
+	 * @param snapshot sensor state to render.
+	 * @see TactSensor#snapshot()
+	 * @since 0.3
+	 */
+	public void bias (final TactSnapshot snapshot) {
+		final long start = begin ();
+		final long vertexStart = vertices;
 		
-		graph (sensor.peak, 0, sensor.peak.length, 0f, 1f);
+		if (!cacheHit (snapshot.sensor, snapshot.version, VIEW_BIAS, 0)) {
+			try {
+				if (displayGuides)
+					drawGuides (null, new float[] {snapshot.minBias, snapshot.maxBias});
+				
+				if (displayTitle)
+					drawTitle ("Bias");
+				
+				graph (snapshot.biasRing (), snapshot.biasOffset (), snapshot.biasLength (), 0, snapshot.biasLength (), 0f, 1f);
+				cacheStore ();
+			}finally {
+				cacheAbort ();
+			}
+		}
+		
+		end (TactProfiler.BIAS, start, vertexStart);
+	}
+	
+	/**
+	 * Renders the <code>peak</code> history of a sensor snapshot.
+	 * 
+	 * @param snapshot sensor state to render.
+	 * @see TactSensor#snapshot()
+	 * @since 0.3
+	 */
+	public void peak (final TactSnapshot snapshot) {
+		final long start = begin ();
+		final long vertexStart = vertices;
+		
+		if (!cacheHit (snapshot.sensor, snapshot.version, VIEW_PEAK, 0)) {
+			try {
+				if (displayGuides)
+					drawGuides (null, new float[] {snapshot.minPeak, snapshot.maxPeak});
+				
+				if (displayTitle)
+					drawTitle ("Peak");
+				
+				graph (snapshot.peakRing (), snapshot.peakOffset (), snapshot.peakLength (), 0, snapshot.peakLength (), 0f, 1f);
+				cacheStore ();
+			}finally {
+				cacheAbort ();
+			}
+		}
+		
+		end (TactProfiler.PEAK, start, vertexStart);
+	}
+	
+	/**
+	 * Renders the long-term <code>bias</code> trend of a sensor 
+	 * as min/max envelope and mean line. The sensor's summaries 
+	 * must have been enabled via {@link TactSensor#pyramid(int, int)}.
+	 * 
+	 * @param sensor sensor holding the bias summary.
+	 * @param samples number of most recent bias values to cover.
+	 * @see TactSensor#biasPyramid()
+	 * @since 0.3
+	 */
+	public void biasTrend (final TactSensor sensor, final long samples) {
+		if (cacheHit (sensor, sensor.version (), VIEW_BIAS_TREND, samples))
+			return;
+		
+		try {
+			if (displayGuides)
+				drawGuides (null, new float[] {sensor.minBias (), sensor.maxBias ()});
+			
+			if (displayTitle)
+				drawTitle ("Bias");
+			
+			trend (sensor.biasPyramid (), samples);
+			cacheStore ();
+		}finally {
+			cacheAbort ();
+		}
+	}
+	
+	/**
+	 * Renders the long-term <code>peak</code> trend of a sensor 
+	 * as min/max envelope and mean line. The sensor's summaries 
+	 * must have been enabled via {@link TactSensor#pyramid(int, int)}.
+	 * 
+	 * @param sensor sensor holding the peak summary.
+	 * @param samples number of most recent peak values to cover.
+	 * @see TactSensor#peakPyramid()
+	 * @since 0.3
+	 */
+	public void peakTrend (final TactSensor sensor, final long samples) {
+		if (cacheHit (sensor, sensor.version (), VIEW_PEAK_TREND, samples))
+			return;
+		
+		try {
+			if (displayGuides)
+				drawGuides (null, new float[] {sensor.minPeak (), sensor.maxPeak ()});
+			
+			if (displayTitle)
+				drawTitle ("Peak");
+			
+			trend (sensor.peakPyramid (), samples);
+			cacheStore ();
+		}finally {
+			cacheAbort ();
+		}
+	}
+	
+	/**
+	 * Renders a {@link TactPyramid} summary with one column per 
+	 * horizontal pixel, so the cost does not depend on the 
+	 * number of covered values. Values are expected in the 
+	 * range of 0 to 1.
+	 * 
+	 * @param pyramid summary to render.
+	 * @param samples number of most recent values to cover.
+	 * @since 0.3
+	 */
+	public void trend (final TactPyramid pyramid, final long samples) {
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
+		
+		if (displayAxis)
+			drawAxis (-samples, 0, 0f, 1f);
+		
+		final int columns = (int) (width - offsetX);
+		if (pyramid == null || samples < 1 || columns < 1)
+			return;
+		
+		if (trendMin.length < columns) {
+			trendMin = new float[columns];
+			trendMax = new float[columns];
+			trendMean = new float[columns];
+		}
+		
+		final int n = pyramid.latest (samples, columns, trendMin, trendMax, trendMean);
+		if (n < 1)
+			return;
+		
+		// Values that are not available (yet) leave 
+		// a gap on the left side of the diagram.
+		final float covered = (float) Math.min (samples, pyramid.span ()) / samples;
+		final float xStep = (width - offsetX) * covered / n;
+		final float xStart = x + width - xStep * n;
+		final float yBase = y + height - offsetY;
+		final float yStep = height - offsetY;
+		
+		// Min/max envelope
+		g.stroke (palette.binStroke);
+		g.strokeWeight (1);
+		g.beginShape (PGraphics.LINES);
+		for (int i=0; i < n; i++) {
+			final float xp = xStart + xStep * (i + 0.5f);
+			g.vertex (xp, yBase - yStep * trendMin[i]);
+			g.vertex (xp, yBase - yStep * trendMax[i]);
+		}
+		g.endShape ();
+		vertices += n * 2;
+		
+		// Mean line
+		g.stroke (palette.graph);
+		g.noFill ();
+		g.beginShape ();
+		for (int i=0; i < n; i++)
+			g.vertex (xStart + xStep * (i + 0.5f), yBase - yStep * trendMean[i]);
+		g.endShape ();
+		vertices += n;
+	}
+	
+	/**
+	 * Renders the spectrum history of a sensor as waterfall: time runs 
+	 * along the x-axis, one pixel column per received spectrum, and the 
+	 * signal amplitude is mapped to color. Only newly received spectra 
+	 * are written into an image ring, which is drawn with a wrapped 
+	 * offset, so the cost per frame depends on the number of new 
+	 * readings rather than on the length of the history. The waterfall 
+	 * keeps one column per horizontal pixel of the diagram. Amplitudes 
+	 * are colored via a look-up table, by default an alpha ramp of the 
+	 * graph color; see <code>waterfallColors()</code> for others.<br />
+	 * <br />
+	 * Spectra are taken from a snapshot of the sensor, so the serial 
+	 * thread never changes them while they are drawn. Spectra arriving 
+	 * faster than the sensor's <code>buffer</code> is drawn can not be 
+	 * recovered; use a larger buffer size in that case.
+	 * 
+	 * @param sensor source of spectra.
+	 * @see TactSensor#snapshot()
+	 * @see #waterfallColors(int...)
+	 * @since 0.3
+	 */
+	public void waterfall (final TactSensor sensor) {
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
+		final int columns = Math.max ((int) (width - offsetX), 1);
+		final int readings = sensor.readings ();
+		
+		if (displayAxis)
+			drawAxis (-columns, 0, sensor.start (), sensor.start () + readings * sensor.step ());
+		
+		if (readings < 1)
+			return;
+		
+		// Captured once, the serial thread keeps on pushing
+		final TactSnapshot snapshot = sensor.snapshot ();
+		final long received = snapshot.receivedCount;
+		final int spectra = snapshot.spectraLength ();
+		
+		// Start over when sensor, size or spectrum shape changed
+		if (waterfall == null || waterfallSensor != sensor || waterfall.width != columns || waterfall.height != readings 
+				|| received < waterfallCount) {
+			waterfall = parent.createImage (columns, readings, PImage.ARGB);
+			waterfallSensor = sensor;
+			waterfallCount = received - Math.min (received, spectra);
+			waterfallHead = 0;
+		}
+		
+		if (waterfallPalette != palette)
+			resolveWaterfallColors (palette);
+		
+		// Write one column per new spectrum
+		final int fresh = (int) Math.min (received - waterfallCount, Math.min (spectra, columns));
+		
+		if (fresh > 0) {
+			waterfall.loadPixels ();
+			final float scale = (waterfallLut.length - 1) / TactConstants.AMPLITUDE_MAX;
+			
+			for (int k=spectra - fresh; k < spectra; k++) {
+				final TactSpectrum spectrum = snapshot.spectrumAt (k);
+				
+				for (int r=0; r < readings; r++) {
+					final float v = (spectrum != null && r < spectrum.values.length) ? spectrum.values[r] : 0;
+					final int index = Math.max (0, Math.min (waterfallLut.length - 1, (int) (v * scale)));
+					// Low spectrum indices at the bottom
+					waterfall.pixels[(readings - 1 - r) * columns + waterfallHead] = waterfallLut[index];
+				}
+				waterfallHead = (waterfallHead + 1) % columns;
+			}
+			waterfall.updatePixels ();
+		}
+		waterfallCount = received;
+		
+		// Draw ring with the oldest column on the left
+		final float xScale = (width - offsetX) / columns;
+		final float plotHeight = height - offsetY;
+		final float split = x + offsetX + (columns - waterfallHead) * xScale;
+		
+		g.pushStyle ();
+		g.imageMode (PGraphics.CORNER);
+		g.noTint ();
+		g.image (waterfall, x + offsetX, y, split - x - offsetX, plotHeight, waterfallHead, 0, columns, readings);
+		if (waterfallHead > 0)
+			g.image (waterfall, split, y, waterfallHead * xScale, plotHeight, 0, 0, waterfallHead, readings);
+		g.popStyle ();
+		
+		if (displayTitle)
+			drawTitle ("Waterfall");
+	}
+	
+	/**
+	 * Sets the colors amplitudes are mapped to in the waterfall, from 
+	 * zero to maximum amplitude. Amplitudes between two stops get an 
+	 * interpolated color. Without stops, the waterfall uses an alpha 
+	 * ramp from transparent to the graph color.
+	 * <pre>
+	 * graph.waterfallColors(color(0, 0, 80), color(200, 0, 100), color(255, 220, 0));
+	 * </pre>
+	 * 
+	 * @param stops colors evenly spread over the amplitude range, 
+	 *        none to follow the palette again.
+	 * @see #waterfall(TactSensor)
+	 * @since 0.3
+	 */
+	public void waterfallColors (final int... stops) {
+		waterfallStops = (stops != null && stops.length > 0) ? stops.clone () : null;
+		waterfallPalette = null;
+	}
+	
+	/**
+	 * Fills the waterfall's color look-up table.
+	 */
+	private void resolveWaterfallColors (final TactTheme palette) {
+		final int last = waterfallLut.length - 1;
+		if (waterfallStops == null) {
+			// Alpha ramp from transparent to graph color
+			final int rgb = palette.graph & 0xFFFFFF;
+			final int alpha = palette.graph >>> 24;
+			for (int i=0; i <= last; i++)
+				waterfallLut[i] = ((i * alpha / 255) << 24) | rgb;
+		}else if (waterfallStops.length == 1) {
+			Arrays.fill (waterfallLut, waterfallStops[0]);
+		}else{
+			final int segments = waterfallStops.length - 1;
+			for (int i=0; i <= last; i++) {
+				final float position = (float) i * segments / last;
+				final int k = Math.min ((int) position, segments - 1);
+				waterfallLut[i] = lerpColor (waterfallStops[k], waterfallStops[k+1], position - k);
+			}
+		}
+		waterfallPalette = palette;
+	}
+	
+	/**
+	 * Interpolates each ARGB channel of two colors.
+	 */
+	private static int lerpColor (final int from, final int to, final float amount) {
+		int color = 0;
+		for (int shift=0; shift < 32; shift += 8) {
+			final int a = (from >>> shift) & 0xFF;
+			final int b = (to >>> shift) & 0xFF;
+			color |= (a + Math.round ((b - a) * amount)) << shift;
+		}
+		return color;
 	}
 	
 	/**
@@ -335,36 +1143,57 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	public void bins (final float[][] values, final float yMin, final float yMax) {
+		final long start = begin ();
+		final long vertexStart = vertices;
 		
-		if (values.length < 1)
-			return;
+		if (values.length > 0)
+			drawBins (values, yMin, yMax);
+		
+		end (TactProfiler.BINS, start, vertexStart);
+	}
+	
+	/**
+	 * Renders bins of at least one series.
+	 */
+	private void drawBins (final float[][] values, final float yMin, final float yMax) {
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
 		
 		final float xStep = (width - offsetX) / values[0].length;
 		final float yStep = (height - offsetY) / (yMax - yMin);
 		
+		final float yBase = y + height - offsetY;
+		
 		for (int j=0; j < values.length; j++) {
+			
+			// All bin areas as one shape ...
+			g.fill (palette.binFill);
+			g.noStroke ();
+			g.beginShape (PGraphics.QUADS);
 			for (int i=0; i < values[j].length; i++) {
+				final float x0 = x + offsetX + xStep * i;
+				final float x1 = x0 + xStep;
+				final float yp = yBase - yStep * values[j][i];
 				
-				final float h = yStep * values[j][i];
-				
-				parent.g.stroke (theme.get (THEME_BIN_STROKE));
-				parent.g.strokeWeight (segmentStrokeWeight);
-				parent.g.line (
-					x + offsetX + xStep * i,
-					y + height - offsetY - h,
-					x + offsetX + xStep * (i+1),
-					y + height - offsetY - h
-				);
+				g.vertex (x0, yp);
+				g.vertex (x1, yp);
+				g.vertex (x1, yBase);
+				g.vertex (x0, yBase);
+			}
+			g.endShape ();
+			
+			// ... followed by all bin tops as another one.
+			g.stroke (palette.binStroke);
+			g.strokeWeight (segmentStrokeWeight);
+			g.beginShape (PGraphics.LINES);
+			for (int i=0; i < values[j].length; i++) {
+				final float yp = yBase - yStep * values[j][i];
 				
-				parent.g.fill (theme.get (THEME_BIN_FILL));
-				parent.g.noStroke ();
-				parent.g.rect (
-					x + offsetX + xStep * i,
-					y + height - offsetY - h,
-					xStep,
-					h
-				);
+				g.vertex (x + offsetX + xStep * i, yp);
+				g.vertex (x + offsetX + xStep * (i+1), yp);
 			}
+			g.endShape ();
+			vertices += values[j].length * 6;
 		}
 	}
 	
@@ -379,24 +1208,124 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	public void graph (final float[][] values, final float xMin, final float xMax, final float yMin, final float yMax) {
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
+		final long start = begin ();
+		final long vertexStart = vertices;
 		
 		if (displayAxis)
 			drawAxis (xMin, xMax, yMin, yMax);
 		
-		if (values.length < 1)
-			return;
-				
-		final float xStep = (width - offsetX) / (values[0].length - 1);
+		if (values.length > 0) {
+			g.stroke (palette.graph);
+			g.noFill ();
+			for (int j=0; j < values.length; j++)
+				series (values[j], 0, values[j].length, values[0].length, yMin, yMax);
+		}
+		
+		end (TactProfiler.GRAPH, start, vertexStart);
+	}
+	
+	/**
+	 * Render a section of an array as graph, such as the 
+	 * contiguous history window of a {@link TactSnapshot}.
+	 * 
+	 * @param values array holding the series.
+	 * @param offset index of the first value to render.
+	 * @param length number of values to render.
+	 * @param xMin the minimum value on the x-axis.
+	 * @param xMax the maximum value on the x-axis.
+	 * @param yMin the minimum value on the y-axis.
+	 * @param yMax the maximum value on the y-axis.
+	 * @since 0.3
+	 */
+	public void graph (final float[] values, final int offset, final int length, final float xMin, final float xMax, final float yMin, final float yMax) {
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
+		final long start = begin ();
+		final long vertexStart = vertices;
+		
+		if (displayAxis)
+			drawAxis (xMin, xMax, yMin, yMax);
+		
+		g.stroke (palette.graph);
+		g.noFill ();
+		series (values, offset, length, length, yMin, yMax);
+		
+		end (TactProfiler.GRAPH, start, vertexStart);
+	}
+	
+	/**
+	 * Renders one series as shape, decimated if enabled.
+	 * 
+	 * @param slots number of values spread across the plot width.
+	 */
+	private void series (final float[] values, final int offset, final int length, final int slots, final float yMin, final float yMax) {
+		final PGraphics g = canvas ();
+		final float xStep = (width - offsetX) / (slots - 1);
 		final float yStep = (height - offsetY) / (yMax - yMin);
+		final int columns = Math.max ((int) (width - offsetX), 1);
 		
-		parent.g.stroke (theme.get (THEME_GRAPH));
-		parent.g.noFill ();
-		for (int j=0; j < values.length; j++) {
-			parent.g.beginShape ();
-			for (int i=0; i < values[j].length; i++)
-				parent.g.vertex (x + offsetX + xStep * i, y + (height - offsetY) - yStep * values[j][i]);
-			parent.g.endShape ();
+		g.beginShape ();
+		if (decimate && length > columns * 2) {
+			// Only plot the extremes per pixel column
+			if (decimated.length < columns * 2)
+				decimated = new int[columns * 2];
+			
+			final int n = decimate (values, offset, length, columns, decimated);
+			for (int k=0; k < n; k++) {
+				final int i = decimated[k];
+				g.vertex (x + offsetX + xStep * (i - offset), y + (height - offsetY) - yStep * values[i]);
+			}
+			vertices += n;
+		}else{
+			for (int i=0; i < length; i++)
+				g.vertex (x + offsetX + xStep * i, y + (height - offsetY) - yStep * values[offset + i]);
+			vertices += length;
 		}
+		g.endShape ();
+	}
+	
+	/**
+	 * Reduces a series to the minimum and maximum of each column, 
+	 * keeping their chronological order so that every peak survives. 
+	 * The indices of the remaining values are written to 
+	 * <code>indices</code>, which must hold <code>columns * 2</code> 
+	 * entries.
+	 * 
+	 * @param values series to reduce.
+	 * @param offset index of the first value within <code>values</code>.
+	 * @param length number of values to reduce.
+	 * @param columns number of columns, usually the plot width in pixels.
+	 * @param indices target for the indices of the remaining values.
+	 * @return number of indices written.
+	 * @since 0.3
+	 */
+	static int decimate (final float[] values, final int offset, final int length, final int columns, final int[] indices) {
+		int n = 0;
+		for (int c=0; c < columns; c++) {
+			final int from = offset + (int) ((long) length * c / columns);
+			final int to = offset + (int) ((long) length * (c + 1) / columns);
+			if (from >= to)
+				continue;
+			
+			int iMin = from;
+			int iMax = from;
+			for (int i=from + 1; i < to; i++) {
+				if (values[i] < values[iMin])
+					iMin = i;
+				else if (values[i] > values[iMax])
+					iMax = i;
+			}
+			
+			if (iMin == iMax) {
+				indices[n++] = iMin;
+			}else{
+				indices[n++] = Math.min (iMin, iMax);
+				indices[n++] = Math.max (iMin, iMax);
+			}
+		}
+		return n;
 	}
 	
 	/**
@@ -407,21 +1336,26 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	private void drawGuides (final float[] xvalues, final float[] yvalues) {
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
+		final long start = begin ();
+		final long vertexStart = vertices;
 		
-		parent.g.stroke (theme.get (THEME_AXIS_GUIDE));
-		parent.g.strokeWeight (1);
+		g.stroke (palette.axisGuide);
+		g.strokeWeight (1);
 		
 		if (xvalues != null) {
 			for (float xv : xvalues) {
 				final float xp = x + offsetX + xv * (width - offsetX);
 				float yp = y;
 				
-				parent.g.beginShape (PGraphics.LINES);
+				g.beginShape (PGraphics.LINES);
 				while (yp < y + height - offsetY) {
-					parent.g.vertex (xp, yp);
+					g.vertex (xp, yp);
 					yp += 3;
+					vertices++;
 				}
-				parent.g.endShape ();
+				g.endShape ();
 			}
 		}
 		
@@ -430,24 +1364,28 @@ public class TactGraph {
 				final float yp = y + (1 - yv) * (height - offsetY);
 				float xp = x + offsetX;
 				
-				parent.g.beginShape (PGraphics.LINES);
+				g.beginShape (PGraphics.LINES);
 				while (xp < x + width) {
-					parent.g.vertex (xp, yp);
+					g.vertex (xp, yp);
 					xp += 3;
+					vertices++;
 				}
-				parent.g.endShape ();
+				g.endShape ();
 			}
 		}
+		
+		end (TactProfiler.GUIDES, start, vertexStart);
 	}
 	
 	private void drawHelper (TactSensor sensor) {
+		final PGraphics g = canvas ();
 		if (parent.mouseX > x + offsetX && parent.mouseX < x + width && parent.mouseY > y && parent.mouseY < y + height - offsetY) {
-			parent.g.line (parent.mouseX, y, parent.mouseX, y + height - offsetY);
+			g.line (parent.mouseX, y, parent.mouseX, y + height - offsetY);
 			
 			final int index = (int) (((parent.mouseX - x - offsetX) / (width - offsetX)) * sensor.readings ());
 			String xlabel = Integer.toString (sensor.start () + sensor.step () * index);
 			
-			parent.g.text (xlabel, parent.mouseX + 5, y + height - offsetY - 3);
+			g.text (xlabel, parent.mouseX + 5, y + height - offsetY - 3);
 		}
 	}
 	
@@ -458,8 +1396,10 @@ public class TactGraph {
 	 * @since 0.1
 	 */
 	private void drawTitle (final String title) {
-		parent.g.fill (theme.get (THEME_TITLE_FILL));
-		parent.g.text (title, x + offsetX + 10, y + 15);
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
+		g.fill (palette.titleFill);
+		g.text (title, x + offsetX + 10, y + 15);
 	}
 	
 	/**
@@ -472,11 +1412,91 @@ public class TactGraph {
 	 * @sine 0.1
 	 */
 	private void drawAxis (final float xMin, final float xMax, final float yMin, final float yMax) {
+		final long start = begin ();
+		final long vertexStart = vertices;
+		
+		if (cacheAxis) {
+			drawAxisLayer (xMin, xMax, yMin, yMax);
+		}else{
+			renderAxis (canvas (), x, y, xMin, xMax, yMin, yMax);
+			vertices += AXIS_VERTICES;
+		}
+		
+		end (TactProfiler.AXIS, start, vertexStart);
+	}
+	
+	/**
+	 * Draws the cached axis layer, rendering it 
+	 * first if geometry, palette or ranges changed.
+	 */
+	private void drawAxisLayer (final float xMin, final float xMax, final float yMin, final float yMax) {
+		final PGraphics g = canvas ();
+		final TactTheme palette = palette ();
 		
-		parent.g.stroke (theme.get (THEME_AXIS_LINE));
-		parent.g.strokeWeight (axisStrokeWeight);
-		parent.g.line (x + offsetX, y, x +offsetX, y + height - offsetY);
-		parent.g.line (x + offsetX, y + height - offsetY, x + width, y + height - offsetY);
+		// Layer is placed on full pixels, the fraction 
+		// of the position is rendered into the layer.
+		final float left = (float) Math.floor (x);
+		final float top = (float) Math.floor (y);
+		
+		if (axisLayer == null || axisPalette != palette || axisTextFont != g.textFont 
+				|| axisKey[0] != x || axisKey[1] != y || axisKey[2] != width || axisKey[3] != height 
+				|| axisKey[4] != offsetX || axisKey[5] != offsetY || axisKey[6] != xMin 
+				|| axisKey[7] != xMax || axisKey[8] != yMin || axisKey[9] != yMax) {
+			
+			final int w = (int) Math.ceil (width) + AXIS_LAYER_MARGIN * 2 + 1;
+			final int h = (int) Math.ceil (height) + AXIS_LAYER_MARGIN * 2 + 1;
+			
+			if (axisLayer == null || axisLayer.width != w || axisLayer.height != h)
+				axisLayer = createLayer (parent, w, h);
+			
+			axisLayer.beginDraw ();
+			axisLayer.clear ();
+			if (g.textFont != null)
+				axisLayer.textFont (g.textFont);
+			renderAxis (axisLayer, AXIS_LAYER_MARGIN + x - left, AXIS_LAYER_MARGIN + y - top, xMin, xMax, yMin, yMax);
+			axisLayer.endDraw ();
+			
+			axisPalette = palette;
+			axisTextFont = g.textFont;
+			axisKey[0] = x;
+			axisKey[1] = y;
+			axisKey[2] = width;
+			axisKey[3] = height;
+			axisKey[4] = offsetX;
+			axisKey[5] = offsetY;
+			axisKey[6] = xMin;
+			axisKey[7] = xMax;
+			axisKey[8] = yMin;
+			axisKey[9] = yMax;
+		}
+		
+		g.pushStyle ();
+		g.imageMode (PGraphics.CORNER);
+		g.noTint ();
+		g.image (axisLayer, left - AXIS_LAYER_MARGIN, top - AXIS_LAYER_MARGIN);
+		g.popStyle ();
+		vertices += 4;
+	}
+	
+	/**
+	 * Render diagram x and y axis onto the given graphics.
+	 * 
+	 * @param g graphics to render onto.
+	 * @param x diagram x position within <code>g</code>.
+	 * @param y diagram y position within <code>g</code>.
+	 * @param xMin the minimum value on the x-axis.
+	 * @param xMax the maximum value on the x-axis.
+	 * @param yMin the minimum value on the y-axis.
+	 * @param yMax the maximum value on the y-axis.
+	 * @since 0.3
+	 */
+	private void renderAxis (final PGraphics g, final float x, final float y, final float xMin, final float xMax, final float yMin, final float yMax) {
+		final TactTheme palette = palette ();
+		
+		g.stroke (palette.axisLine);
+		g.strokeWeight (axisStrokeWeight);
+		g.line (x + offsetX, y, x +offsetX, y + height - offsetY);
+		g.line (x + offsetX, y + height - offsetY, x + width, y + height - offsetY);
 		
 		float markStepX = (xMax - xMin) / AXIS_MARKER_X_NUM;
 		float markStepY = (yMax - yMin) / AXIS_MARKER_Y_NUM;
@@ -492,26 +1512,26 @@ public class TactGraph {
 			final float axisStep = (width - offsetX) / AXIS_MARKER_X_NUM;
 			final float xpos = x + offsetX + axisStep * i;
 			
-			parent.g.stroke (theme.get (THEME_AXIS_MARKER));
-			parent.g.line (xpos, y + height - offsetY, xpos, y + height - offsetY + AXIS_MARKER_X_LENGTH);
+			g.stroke (palette.axisMarker);
+			g.line (xpos, y + height - offsetY, xpos, y + height - offsetY + AXIS_MARKER_X_LENGTH);
 			
 			// Marker helper
 			if (i > 0) {
-				parent.g.stroke (theme.get (THEME_AXIS_HELPER));
-				parent.g.strokeWeight (helperStrokeWeight);
-				parent.g.line (xpos, y, xpos, y + height - offsetY - axisStrokeWeight);
+				g.stroke (palette.axisHelper);
+				g.strokeWeight (helperStrokeWeight);
+				g.line (xpos, y, xpos, y + height - offsetY - axisStrokeWeight);
 			}
 			
 			final float label = xMin + markStepX * i;
 			
-			parent.g.fill (theme.get (THEME_AXIS_LABEL));
-			parent.g.textSize (axisTextSize);
+			g.fill (palette.axisLabel);
+			g.textSize (axisTextSize);
 			
 			if (label > 5 || label % 1 == 0) {
-				parent.g.text ((int) label, xpos - parent.textWidth (Integer.toString ((int)label)) / 2, y + height - offsetY + axisTextSize * 2.1f);
+				g.text ((int) label, xpos - g.textWidth (Integer.toString ((int)label)) / 2, y + height - offsetY + axisTextSize * 2.1f);
 			}else{
 				String s = Integer.toString ((int) label);
-				parent.g.text (s, xpos - parent.textWidth (s) / 2, y + height - offsetY);
+				g.text (s, xpos - g.textWidth (s) / 2, y + height - offsetY);
 			}
 		}
 		
@@ -524,29 +1544,48 @@ public class TactGraph {
 			
 			// Draw vertical helper extension along the y-axis.
 			// These are the short lines next to the axis labels.
-			parent.g.stroke (theme.get (THEME_AXIS_MARKER));
-			parent.g.line (x + offsetX - AXIS_MARKER_Y_LENGTH, ypos, x + offsetX, ypos);
+			g.stroke (palette.axisMarker);
+			g.line (x + offsetX - AXIS_MARKER_Y_LENGTH, ypos, x + offsetX, ypos);
 			
 			// Draw the horizontal marker helper across the full 
 			// width of the diagram (along the y-axis).
 			if (i != AXIS_MARKER_Y_NUM) {
-				parent.g.stroke (theme.get (THEME_AXIS_HELPER));
-				parent.g.strokeWeight (helperStrokeWeight);
-				parent.g.line (x + offsetX + axisStrokeWeight, ypos, x + width, ypos);
+				g.stroke (palette.axisHelper);
+				g.strokeWeight (helperStrokeWeight);
+				g.line (x + offsetX + axisStrokeWeight, ypos, x + width, ypos);
 			}
 			
 			// Display the text labels along the y-axis
 			final float label = yMax - markStepY * i;
-			parent.g.fill (theme.get (THEME_AXIS_LABEL));
-			parent.g.textSize (axisTextSize);
+			g.fill (palette.axisLabel);
+			g.textSize (axisTextSize);
 			
 			// Select appropriate format depending on present value 
 			if (label > 5 || label % 1 == 0) {
-				parent.g.text ((int) label, x + offsetX - parent.textWidth (Integer.toString ((int)label)) - 10, ypos + axisTextSize / 2);
+				g.text ((int) label, x + offsetX - g.textWidth (Integer.toString ((int)label)) - 10, ypos + axisTextSize / 2);
 			}else{
 				String s = Float.toString (label);
-				parent.g.text (s, x + offsetX - parent.textWidth (s) - 10, ypos + axisTextSize / 2);
+				g.text (s, x + offsetX - g.textWidth (s) - 10, ypos + axisTextSize / 2);
 			}
 		}
 	}
+	
+	/**
+	 * Last rendering of one view of a sensor.
+	 */
+	private static class RenderCache {
+		final TactSensor sensor;
+		final int view;
+		PGraphics layer;
+		long version;
+		long variant;
+		TactTheme palette;
+		PFont font;
+		final float[] key = new float[8];
+		
+		RenderCache (final TactSensor sensor, final int view) {
+			this.sensor = sensor;
+			this.view = view;
+		}
+	}
 }
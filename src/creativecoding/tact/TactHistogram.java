@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A <code>TactHistogram</code> counts durations in buckets of 
+ * bounded relative error, in the manner of HdrHistogram.</p>
+ * 
+ * <p>Buckets are log-linear: every power of two is split into 
+ * {@link #SUB_BUCKETS} equally wide buckets, so any recorded value 
+ * is reproduced within about 3% regardless of its magnitude, from 
+ * nanoseconds up to {@link #MAX_VALUE}. Recording is a single 
+ * atomic increment without allocation and may happen on any thread, 
+ * while percentiles are queried from another, e.g. the sketch.</p>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactLatency
+ * @since 0.3
+ */
+public class TactHistogram {
+
+	/**
+	 * Number of linear buckets per power of two.
+	 */
+	public static final int SUB_BUCKETS = 32;
+
+	private static final int SUB_BITS = 5;
+
+	/**
+	 * Largest value in nanoseconds that is told apart, about 68 
+	 * seconds. Larger values are counted as this one.
+	 */
+	public static final long MAX_VALUE = (1L << 36) - 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray (index (MAX_VALUE) + 1);
+	private final AtomicLong count = new AtomicLong ();
+	private final AtomicLong sum = new AtomicLong ();
+	private final AtomicLong max = new AtomicLong ();
+
+	/**
+	 * Records a duration.
+	 * 
+	 * @param nanos duration in nanoseconds, negative values are ignored.
+	 * @since 0.3
+	 */
+	public void record (final long nanos) {
+		if (nanos < 0)
+			return;
+
+		final long value = Math.min (nanos, MAX_VALUE);
+		counts.incrementAndGet (index (value));
+		count.incrementAndGet ();
+		sum.addAndGet (value);
+
+		long m = max.get ();
+		while (value > m && !max.compareAndSet (m, value))
+			m = max.get ();
+	}
+
+	/**
+	 * Bucket of a value: values below <code>SUB_BUCKETS</code> 
+	 * map to themselves, each following power of two is split 
+	 * into <code>SUB_BUCKETS</code> buckets.
+	 */
+	private static int index (final long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		final int shift = 63 - Long.numberOfLeadingZeros (value) - SUB_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (value >> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * Mid value of a bucket.
+	 */
+	private static long value (final int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		final int shift = index / SUB_BUCKETS - 1;
+		final long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) / 2;
+	}
+
+	/**
+	 * Number of recorded durations.
+	 * 
+	 * @return count as <code>long</code>.
+	 * @since 0.3
+	 */
+	public long count () {
+		return count.get ();
+	}
+
+	/**
+	 * Duration below or at which the given share of recorded durations lie.
+	 * 
+	 * @param percentile between 0 and 100.
+	 * @return duration in milliseconds, 0 if nothing has been recorded.
+	 * @since 0.3
+	 */
+	public float percentile (final float percentile) {
+		final long n = count.get ();
+		if (n == 0)
+			return 0;
+
+		final long rank = Math.max (1, (long) Math.ceil (percentile / 100.0 * n));
+		long seen = 0;
+		for (int i=0; i < counts.length (); i++) {
+			seen += counts.get (i);
+			if (seen >= rank)
+				return Math.min (value (i), max.get ()) / 1e6f;
+		}
+		return max.get () / 1e6f;
+	}
+
+	/**
+	 * Mean of all recorded durations.
+	 * 
+	 * @return duration in milliseconds, 0 if nothing has been recorded.
+	 * @since 0.3
+	 */
+	public float mean () {
+		final long n = count.get ();
+		return (n > 0) ? sum.get () / 1e6f / n : 0;
+	}
+
+	/**
+	 * Longest recorded duration.
+	 * 
+	 * @return duration in milliseconds.
+	 * @since 0.3
+	 */
+	public float max () {
+		return max.get () / 1e6f;
+	}
+
+	/**
+	 * Discards all recorded durations.
+	 * 
+	 * @since 0.3
+	 */
+	public void clear () {
+		for (int i=0; i < counts.length (); i++)
+			counts.set (i, 0);
+		count.set (0);
+		sum.set (0);
+		max.set (0);
+	}
+
+	/**
+	 * Summary: number of durations, median, 90th, 99th and 99.9th 
+	 * percentile and maximum in milliseconds.
+	 * 
+	 * @return summary as <code>String</code>.
+	 * @since 0.3
+	 */
+	@Override
+	public String toString () {
+		return String.format (Locale.US, "n %8d  p50 %8.3f  p90 %8.3f  p99 %8.3f  p99.9 %8.3f  max %8.3f ms",
+			count (), percentile (50), percentile (90), percentile (99), percentile (99.9f), max ());
+	}
+}
@@ -0,0 +1,458 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import processing.core.PApplet;
+
+/**
+ * <p>A <code>TactHub</code> runs several Tact boards, each connected to
+ * its own serial port, from one sketch.</p>
+ * 
+ * <p>Every board is a {@link Tact} instance with its own serial connection
+ * and update thread, so boards are polled in parallel and throughput grows
+ * with the number of boards as long as there are cores to spare. Sensors
+ * are addressed globally by board and pin, see {@link #address(int, int)}.
+ * The events of all boards are merged into one queue in the order they
+ * arrived and delivered one after another from a single thread, to the
+ * sketch's <code>tactEvent()</code> method and to registered listeners.</p>
+ * <pre>
+ * TactHub hub = new TactHub(this, 3, 4);
+ * hub.addSensor(0, 0);
+ * hub.addSensor(1, 0);
+ * hub.startUpdates();
+ * ...
+ * void tactEvent(TactEvent e) {
+ *    println(hub.board(e) + "/" + e.sensor.pin());
+ * }
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see Tact
+ * @since 0.3
+ */
+public class TactHub implements TactListener {
+
+	/**
+	 * Number of events that may wait for delivery. Further
+	 * events are dropped while the queue is full.
+	 */
+	public static final int QUEUE_CAPACITY = 4096;
+
+	/**
+	 * Time in milliseconds <code>stopUpdates()</code> 
+	 * waits for the delivery thread to end.
+	 */
+	private static final long STOP_TIMEOUT = 1000;
+
+	private PApplet parent;
+
+	/**
+	 * Boards in order of their serial indices as passed to the constructor.
+	 */
+	private final Tact[] boards;
+
+	private CopyOnWriteArrayList<TactListener> listeners = new CopyOnWriteArrayList<TactListener> ();
+
+	/**
+	 * Events of all boards in order of arrival.
+	 */
+	private final BlockingQueue<TactEvent> events = new ArrayBlockingQueue<TactEvent> (QUEUE_CAPACITY);
+
+	private final AtomicLong dropped = new AtomicLong ();
+	private final AtomicLong errors = new AtomicLong ();
+
+	private final TactHubMetrics metrics = new TactHubMetrics (this);
+
+	/**
+	 * Serial indices of all boards, naming the metrics MBean.
+	 */
+	private final String ports;
+
+	private Method tactEvent;
+
+	/**
+	 * Thread delivering queued events.
+	 */
+	private Thread thread;
+	
+	/**
+	 * Flag for running the update threads of all boards, the event 
+	 * delivery and asynchronous listeners on virtual threads. 
+	 * Set it before calling <code>startUpdates()</code>. The library 
+	 * runs no writer or recorder loops of its own; listeners doing 
+	 * such work run on virtual threads when added asynchronously.
+	 * 
+	 * @see Tact#virtualThreads
+	 * @since 0.3
+	 */
+	public boolean virtualThreads = false;
+
+	/**
+	 * Creates a hub with one board per serial port.
+	 * 
+	 * <code>TactHub hub = new TactHub(this, 3, 4);</code>
+	 * 
+	 * @param parent reference to the main sketch instantiation.
+	 * @param serialIndices serial port of each board. These indices
+	 *        correspond to the order within the processing.Serial.list() array.
+	 * @since 0.3
+	 */
+	public TactHub (PApplet parent, final int... serialIndices) {
+		this.parent = parent;
+
+		try {
+			tactEvent = parent.getClass ().getMethod ("tactEvent", TactEvent.class);
+		} catch (Exception e) {
+			// No such method, ignore anyway ...
+		}
+
+		final StringBuilder ports = new StringBuilder ();
+		boards = new Tact[serialIndices.length];
+		for (int i=0; i < boards.length; i++) {
+			ports.append ((i > 0) ? "-" : "").append (serialIndices[i]);
+			boards[i] = new Tact (parent, serialIndices[i]);
+			// Events reach the sketch through the hub only
+			boards[i].tactEvent = null;
+			boards[i].addTactListener (this);
+		}
+		this.ports = ports.toString ();
+
+		parent.registerMethod ("dispose", this);
+	}
+
+	/**
+	 * Called by PApplet on exit to stop event delivery 
+	 * and the threads of asynchronous listeners.
+	 */
+	public void dispose () {
+		stopUpdates ();
+		metrics.unregister ();
+
+		for (TactListener l : listeners)
+			if (l instanceof TactMailbox)
+				((TactMailbox) l).close ();
+	}
+
+	/**
+	 * Global address of a sensor.
+	 * 
+	 * @param board index of the board.
+	 * @param pin sensor pin on that board.
+	 * @return address as <code>int</code>.
+	 * @since 0.3
+	 */
+	public static int address (final int board, final int pin) {
+		return board * TactConstants.PROTOCOL_SENSOR_INDEX_LIMIT + pin;
+	}
+
+	/**
+	 * Global address of the sensor an event originates from.
+	 * 
+	 * @param e event delivered by this hub.
+	 * @return address as <code>int</code>, -1 if the
+	 *         event does not originate from this hub.
+	 * @since 0.3
+	 */
+	public int address (final TactEvent e) {
+		final int board = board (e);
+		return (board >= 0) ? address (board, e.sensor.pin ()) : -1;
+	}
+
+	/**
+	 * Index of the board an event originates from.
+	 * 
+	 * @param e event delivered by this hub.
+	 * @return board index as <code>int</code>, -1 if the
+	 *         event does not originate from this hub.
+	 * @since 0.3
+	 */
+	public int board (final TactEvent e) {
+		for (int i=0; i < boards.length; i++)
+			if (boards[i] == e.getSource ())
+				return i;
+		return -1;
+	}
+
+	/**
+	 * A single board, e.g. for adding sensors with a specific configuration.
+	 * 
+	 * @param index of the board.
+	 * @return board as {@link Tact}.
+	 * @since 0.3
+	 */
+	public Tact board (final int index) {
+		return boards[index];
+	}
+
+	/**
+	 * Number of boards.
+	 * 
+	 * @return boards as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int boards () {
+		return boards.length;
+	}
+
+	/**
+	 * Adds a new Tact sensor to a board.
+	 * 
+	 * @param board index of the board.
+	 * @param pin which will be monitored.
+	 * @return the instantiated sensor.
+	 * @see Tact#addSensor(int)
+	 * @since 0.3
+	 */
+	public TactSensor addSensor (final int board, final int pin) {
+		return boards[board].addSensor (pin);
+	}
+
+	/**
+	 * Adds a new Tact sensor to a board.
+	 * 
+	 * @param board index of the board.
+	 * @param pin which will be monitored.
+	 * @param mode request type when communicating with the sensor:
+	 * {@link TactConstants#SPECTRUM}, {@link TactConstants#BIAS}, {@link TactConstants#BIAS_PEAK}, {@link TactConstants#PEAK}.
+	 * @return the instantiated sensor.
+	 * @see Tact#addSensor(int, String)
+	 * @since 0.3
+	 */
+	public TactSensor addSensor (final int board, final int pin, final String mode) {
+		return boards[board].addSensor (pin, mode);
+	}
+
+	/**
+	 * Sensor at a global address.
+	 * 
+	 * @param address as returned by {@link #address(int, int)}.
+	 * @return sensor as {@link TactSensor}, <code>null</code> if there is none.
+	 * @since 0.3
+	 */
+	public TactSensor sensor (final int address) {
+		final int board = address / TactConstants.PROTOCOL_SENSOR_INDEX_LIMIT;
+		if (address < 0 || board >= boards.length)
+			return null;
+		return boards[board].sensors.get (address % TactConstants.PROTOCOL_SENSOR_INDEX_LIMIT);
+	}
+
+	/**
+	 * Starts the communication with all boards
+	 * as well as the event delivery.
+	 * 
+	 * @see Tact#startUpdates()
+	 * @since 0.3
+	 */
+	public void startUpdates () {
+		if (thread == null || !thread.isAlive ()) {
+			thread = TactThreads.create (new Runnable () {
+				public void run () {
+					deliver ();
+				}
+			}, "Tact hub events", virtualThreads, true);
+			thread.start ();
+		}
+		metrics.register (ports);
+
+		for (Tact board : boards) {
+			board.virtualThreads = virtualThreads;
+			board.startUpdates ();
+		}
+	}
+
+	/**
+	 * Stops the communication with all boards and the event
+	 * delivery. Events still queued are discarded.
+	 * 
+	 * @since 0.3
+	 */
+	public void stopUpdates () {
+		for (Tact board : boards)
+			board.stopUpadtes ();
+
+		final Thread t = thread;
+		thread = null;
+		if (t != null) {
+			t.interrupt ();
+			// The event being delivered is still completed
+			if (t != Thread.currentThread ()) {
+				try {
+					t.join (STOP_TIMEOUT);
+				}catch (InterruptedException e) {
+					Thread.currentThread ().interrupt ();
+				}
+			}
+		}
+		events.clear ();
+	}
+
+	/**
+	 * Number of events dropped because the
+	 * queue was full, since creation.
+	 * 
+	 * @return dropped events as <code>long</code>.
+	 * @see #QUEUE_CAPACITY
+	 * @since 0.3
+	 */
+	public long dropped () {
+		return dropped.get ();
+	}
+
+	/**
+	 * Number of exceptions thrown by the sketch's <code>tactEvent()</code> 
+	 * method or by listeners while delivering events, since creation. 
+	 * A failing listener does not stop the delivery to others.
+	 * 
+	 * @return listener failures as <code>long</code>.
+	 * @since 0.3
+	 */
+	public long errors () {
+		return errors.get ();
+	}
+
+	/**
+	 * Queue depth, dropped events and listener failures of the event 
+	 * delivery. While updates are running they are also registered 
+	 * as JMX MBean, next to the metrics of each board.
+	 * 
+	 * @return metrics as {@link TactHubMetrics}.
+	 * @see Tact#metrics()
+	 * @since 0.3
+	 */
+	public TactHubMetrics metrics () {
+		return metrics;
+	}
+
+	/**
+	 * Number of events waiting for delivery.
+	 */
+	int queued () {
+		return events.size ();
+	}
+
+	/**
+	 * Listeners receiving events on threads of their own.
+	 */
+	Iterable<TactMailbox> mailboxes () {
+		final ArrayList<TactMailbox> mailboxes = new ArrayList<TactMailbox> ();
+		for (TactListener l : listeners)
+			if (l instanceof TactMailbox)
+				mailboxes.add ((TactMailbox) l);
+		return mailboxes;
+	}
+
+	/**
+	 * Registers a listener for the merged events of all boards.
+	 * 
+	 * @param o object to receive <code>TactEvent</code> updates.
+	 * @since 0.3
+	 */
+	public void addTactListener (TactListener o) {
+		listeners.add (o);
+	}
+
+	/**
+	 * Registers a listener, optionally delivering the merged events
+	 * to it on a thread of its own. An asynchronous listener runs 
+	 * behind acquisition: the event's <code>sensor</code> is the live 
+	 * instance, so its <code>latestSpectrum()</code>, <code>bias()</code> 
+	 * and <code>peak()</code> may already belong to later frames. Use 
+	 * <code>sensor.snapshot()</code> and its <code>version</code> to 
+	 * tell, or process the values in a synchronous listener.
+	 * 
+	 * @param o object to receive <code>TactEvent</code> updates.
+	 * @param async <code>true</code> to deliver on a separate thread.
+	 * @see Tact#addTactListener(TactListener, boolean)
+	 * @since 0.3
+	 */
+	public void addTactListener (TactListener o, final boolean async) {
+		listeners.add (async ? new TactMailbox (o, virtualThreads) : o);
+	}
+
+	/**
+	 * Unregisters a listener.
+	 * 
+	 * @param o object to unregister from <code>TactEvent</code> updates.
+	 * @since 0.3
+	 */
+	public void removeTactListener (TactListener o) {
+		for (TactListener l : listeners) {
+			if (l == o) {
+				listeners.remove (l);
+				return;
+			}
+			if (l instanceof TactMailbox && ((TactMailbox) l).target == o) {
+				listeners.remove (l);
+				((TactMailbox) l).close ();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Receives the events of all boards on their update threads.
+	 */
+	public void tactEvent (final TactEvent e) {
+		if (!events.offer (e))
+			dropped.incrementAndGet ();
+	}
+
+	/**
+	 * Delivers queued events until interrupted.
+	 */
+	private void deliver () {
+		try {
+			while (!Thread.currentThread ().isInterrupted ()) {
+				final TactEvent e = events.take ();
+				e.delivered ();
+
+				if (tactEvent != null) {
+					try {
+						tactEvent.invoke (parent, new Object[] { e });
+					}catch (Exception ex) {
+						errors.incrementAndGet ();
+						System.err.println ("[Tact] Disabling tactEvent() because of an error");
+						ex.printStackTrace ();
+						tactEvent = null;
+					}
+				}
+
+				// A failing listener must not end the delivery
+				for (TactListener l : listeners) {
+					try {
+						l.tactEvent (e);
+					}catch (RuntimeException ex) {
+						errors.incrementAndGet ();
+						System.err.println ("[Tact] Listener failed on event, continuing with the next one");
+						ex.printStackTrace ();
+					}
+				}
+			}
+		}catch (InterruptedException ex) {
+			// Stopped ...
+		}
+	}
+}
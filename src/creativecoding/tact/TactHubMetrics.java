@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+package creativecoding.tact;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>A <code>TactHubMetrics</code> provides the queue depth, dropped events 
+ * and listener failures of a {@link TactHub}'s event delivery, readable via 
+ * {@link TactHub#metrics()} and, while updates are running, as a JMX MBean 
+ * named <code>creativecoding.tact:type=TactHub,ports=&lt;serial indices&gt;</code>. 
+ * The boards' own metrics are available via {@link Tact#metrics()}.</p>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactMetrics
+ * @since 0.3
+ */
+public class TactHubMetrics implements TactHubMetricsMBean {
+
+	private final TactHub hub;
+
+	/**
+	 * Registered MBean name, <code>null</code> if none.
+	 */
+	private ObjectName registered;
+
+	TactHubMetrics (final TactHub hub) {
+		this.hub = hub;
+	}
+
+	public int getBoards () {
+		return hub.boards ();
+	}
+
+	public int getQueueDepth () {
+		int depth = hub.queued ();
+		for (TactMailbox m : hub.mailboxes ())
+			depth += m.size ();
+		return depth;
+	}
+
+	public long getDroppedEvents () {
+		long dropped = hub.dropped ();
+		for (TactMailbox m : hub.mailboxes ())
+			dropped += m.dropped ();
+		return dropped;
+	}
+
+	public long getListenerErrors () {
+		long errors = hub.errors ();
+		for (TactMailbox m : hub.mailboxes ())
+			errors += m.errors ();
+		return errors;
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server. 
+	 * Failures are reported and otherwise ignored.
+	 */
+	void register (final String ports) {
+		unregister ();
+		final String name = "creativecoding.tact:type=TactHub,ports=" + ports;
+		try {
+			final ObjectName objectName = new ObjectName (name);
+			ManagementFactory.getPlatformMBeanServer ().registerMBean (this, objectName);
+			registered = objectName;
+		}catch (Throwable e) {
+			System.err.println ("[Tact] Could not register metrics " + name + " via JMX: " + e);
+		}
+	}
+
+	/**
+	 * Removes the MBean registered by <code>register()</code>.
+	 */
+	void unregister () {
+		if (registered == null)
+			return;
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+			if (server.isRegistered (registered))
+				server.unregisterMBean (registered);
+		}catch (Throwable e) {
+			System.err.println ("[Tact] Could not unregister metrics: " + e);
+		}
+		registered = null;
+	}
+}
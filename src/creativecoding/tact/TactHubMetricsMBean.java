@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+package creativecoding.tact;
+
+/**
+ * Management interface of {@link TactHubMetrics}, exposed via JMX.
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @since 0.3
+ */
+public interface TactHubMetricsMBean {
+
+	/** Number of boards run by the hub. */
+	int getBoards ();
+
+	/** Events waiting in the hub's queue or for its asynchronous listeners. */
+	int getQueueDepth ();
+
+	/** Events dropped by the full hub queue or by asynchronous listeners falling behind. */
+	long getDroppedEvents ();
+
+	/** Exceptions thrown by <code>tactEvent()</code> or listeners of the hub. */
+	long getListenerErrors ();
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.util.Locale;
+
+/**
+ * <p>A <code>TactLatency</code> keeps the latency histograms of one 
+ * sensor, fed by the timestamps every {@link TactEvent} carries.</p>
+ * 
+ * <p>A frame passes four points in time: its request is sent, the first 
+ * byte of the response is read from the serial port, the complete frame 
+ * is decoded, and the event is delivered to the sketch or a listener. 
+ * Each stage in between has its own histogram:</p>
+ * <ul>
+ * <li>{@link #RESPONSE}: request sent until first byte read.</li>
+ * <li>{@link #TRANSFER}: first byte read until frame decoded.</li>
+ * <li>{@link #DELIVERY}: frame decoded until event delivered.</li>
+ * <li>{@link #TOTAL}: request sent until event delivered.</li>
+ * </ul>
+ * <p>Bytes are read when the update thread polls the port, so the 
+ * response stage includes that polling delay as well as the time the 
+ * sensor needs for measuring.</p>
+ * <pre>
+ * println(sensor.latency().histogram(TactLatency.TOTAL).percentile(99));
+ * println(sensor.latency().report());
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactSensor#latency()
+ * @see Tact#latencyLog(String)
+ * @since 0.3
+ */
+public class TactLatency {
+
+	public static final int RESPONSE = 0;
+	public static final int TRANSFER = 1;
+	public static final int DELIVERY = 2;
+	public static final int TOTAL = 3;
+
+	private static final String[] NAMES = {"response", "transfer", "delivery", "total"};
+
+	private final TactHistogram[] histograms = new TactHistogram[NAMES.length];
+
+	TactLatency () {
+		for (int i=0; i < histograms.length; i++)
+			histograms[i] = new TactHistogram ();
+	}
+
+	/**
+	 * Histogram of one stage.
+	 * 
+	 * @param stage one of {@link #RESPONSE}, {@link #TRANSFER}, 
+	 *        {@link #DELIVERY} or {@link #TOTAL}.
+	 * @return histogram as {@link TactHistogram}.
+	 * @since 0.3
+	 */
+	public TactHistogram histogram (final int stage) {
+		return histograms[stage];
+	}
+
+	/**
+	 * Records the stages of a delivered event. 
+	 * Unknown points in time (0) are skipped.
+	 */
+	void record (final TactEvent e, final long delivered) {
+		if (e.requestTime != 0 && e.receiveTime != 0)
+			histograms[RESPONSE].record (e.receiveTime - e.requestTime);
+		if (e.receiveTime != 0 && e.decodeTime != 0)
+			histograms[TRANSFER].record (e.decodeTime - e.receiveTime);
+		if (e.decodeTime != 0)
+			histograms[DELIVERY].record (delivered - e.decodeTime);
+		if (e.requestTime != 0)
+			histograms[TOTAL].record (delivered - e.requestTime);
+	}
+
+	/**
+	 * Discards all recorded latencies.
+	 * 
+	 * @since 0.3
+	 */
+	public void clear () {
+		for (TactHistogram h : histograms)
+			h.clear ();
+	}
+
+	/**
+	 * Summary of all stages, one line each.
+	 * 
+	 * @return report as <code>String</code>.
+	 * @since 0.3
+	 */
+	public String report () {
+		final StringBuilder b = new StringBuilder ();
+		for (int i=0; i < histograms.length; i++)
+			b.append (String.format (Locale.US, "%-9s ", NAMES[i])).append (histograms[i]).append ('\n');
+		return b.toString ();
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers events to one listener on its own thread, so a slow
+ * listener neither delays acquisition nor other listeners. Events
+ * are dropped while the listener is <code>CAPACITY</code> events behind.
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @since 0.3
+ */
+class TactMailbox implements TactListener, Runnable {
+
+	static final int CAPACITY = 1024;
+
+	/**
+	 * Listener the events are delivered to.
+	 */
+	final TactListener target;
+
+	private final BlockingQueue<TactEvent> queue = new ArrayBlockingQueue<TactEvent> (CAPACITY);
+	private final AtomicLong dropped = new AtomicLong ();
+	private final AtomicLong errors = new AtomicLong ();
+	private final Thread thread;
+
+	TactMailbox (final TactListener target, final boolean virtual) {
+		this.target = target;
+		thread = TactThreads.create (this, "Tact listener " + target.getClass ().getSimpleName (), virtual, true);
+		thread.start ();
+	}
+
+	/**
+	 * Queues an event; called on the acquisition thread.
+	 */
+	public void tactEvent (final TactEvent e) {
+		if (!queue.offer (e))
+			dropped.incrementAndGet ();
+	}
+
+	public void run () {
+		// Blocks on a java.util.concurrent queue rather than a monitor,
+		// which leaves a virtual thread's carrier free while waiting
+		try {
+			while (!Thread.currentThread ().isInterrupted ()) {
+				final TactEvent e = queue.take ();
+				try {
+					e.delivered ();
+					target.tactEvent (e);
+				}catch (RuntimeException ex) {
+					errors.incrementAndGet ();
+					System.err.println ("[Tact] Listener failed on event, continuing with the next one");
+					ex.printStackTrace ();
+				}
+			}
+		}catch (InterruptedException e) {
+			// Closed ...
+		}
+	}
+
+	/**
+	 * Number of events dropped because the listener fell behind.
+	 */
+	long dropped () {
+		return dropped.get ();
+	}
+
+	/**
+	 * Number of exceptions thrown by the listener.
+	 */
+	long errors () {
+		return errors.get ();
+	}
+
+	/**
+	 * Number of events waiting for delivery.
+	 */
+	int size () {
+		return queue.size ();
+	}
+
+	/**
+	 * Stops delivery, discarding queued events.
+	 */
+	void close () {
+		thread.interrupt ();
+		queue.clear ();
+	}
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>A <code>TactMetrics</code> provides the counters and gauges of 
+ * one {@link Tact}: throughput, protocol errors, discarded frames, 
+ * listener failures and queue depths.</p>
+ * 
+ * <p>Values are readable through this class, via {@link Tact#metrics()}, 
+ * and while updates are running as a JMX MBean named 
+ * <code>creativecoding.tact:type=Tact,port=&lt;serial index&gt;</code>, 
+ * next to one {@link TactSensorMetrics} MBean per sensor. Any JMX 
+ * client such as <code>jconsole</code> can attach to the sketch.</p>
+ * 
+ * <p>Counters are only written by the update thread, mostly once per 
+ * frame, so an uncontended atomic increment keeps them cheap enough to 
+ * stay enabled; bytes are counted per read batch. Rates are computed 
+ * over the latest completed second, and over the time since then once 
+ * that is longer, so they fall to zero when a board goes silent. The 
+ * queue and drops of a {@link TactHub} are provided by 
+ * {@link TactHubMetrics}.</p>
+ * <pre>
+ * println(tact.metrics().getFrameRate() + " frames/s");
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @since 0.3
+ */
+public class TactMetrics implements TactMetricsMBean {
+
+	private static final String DOMAIN = "creativecoding.tact";
+
+	/**
+	 * Period over which rates are computed.
+	 */
+	private static final long RATE_WINDOW = 1000000000L;
+
+	private final Tact tact;
+
+	final AtomicLong frames = new AtomicLong ();
+	final AtomicLong bytes = new AtomicLong ();
+	final AtomicLong restarts = new AtomicLong ();
+	final AtomicLong unknownCommands = new AtomicLong ();
+	final AtomicLong resyncs = new AtomicLong ();
+	final AtomicLong corrupt = new AtomicLong ();
+	final AtomicLong discarded = new AtomicLong ();
+	final AtomicLong listenerErrors = new AtomicLong ();
+
+	/**
+	 * Counts at the start of the present rate window, 
+	 * and the rates of the previous one.
+	 */
+	private volatile long windowStart = 0;
+	private volatile long windowFrames = 0;
+	private volatile long windowBytes = 0;
+	private volatile float frameRate = 0;
+	private volatile float byteRate = 0;
+
+	/**
+	 * Registered MBean names, to be unregistered on <code>unregister()</code>.
+	 */
+	private final ArrayList<ObjectName> registered = new ArrayList<ObjectName> ();
+
+	/**
+	 * Serial index the MBeans are registered for, -1 if none.
+	 */
+	private int port = -1;
+
+	TactMetrics (final Tact tact) {
+		this.tact = tact;
+	}
+
+	/**
+	 * Counts a decoded frame and rolls the rate window over once 
+	 * it has passed. Called on the update thread only.
+	 */
+	void frame (final long now) {
+		frames.incrementAndGet ();
+
+		if (windowStart == 0) {
+			windowStart = now;
+		}else if (now - windowStart >= RATE_WINDOW) {
+			final long f = frames.get ();
+			final long b = bytes.get ();
+			final float seconds = (now - windowStart) / 1e9f;
+			frameRate = (f - windowFrames) / seconds;
+			byteRate = (b - windowBytes) / seconds;
+			windowFrames = f;
+			windowBytes = b;
+			windowStart = now;
+		}
+	}
+
+	/**
+	 * Rate over the present window if that has been open longer 
+	 * than a window, i.e. no frame rolled it over since; otherwise 
+	 * the rate of the previous window.
+	 */
+	private float rate (final float previous, final AtomicLong counter, final long windowCount) {
+		final long start = windowStart;
+		final long elapsed = System.nanoTime () - start;
+		if (start != 0 && elapsed >= RATE_WINDOW * 2)
+			return (counter.get () - windowCount) / (elapsed / 1e9f);
+		return previous;
+	}
+
+	public long getFrames () {
+		return frames.get ();
+	}
+
+	public long getBytes () {
+		return bytes.get ();
+	}
+
+	public float getFrameRate () {
+		return rate (frameRate, frames, windowFrames);
+	}
+
+	public float getByteRate () {
+		return rate (byteRate, bytes, windowBytes);
+	}
+
+	public long getRestarts () {
+		return restarts.get ();
+	}
+
+	public long getUnknownCommands () {
+		return unknownCommands.get ();
+	}
+
+	public long getResyncs () {
+		return resyncs.get ();
+	}
+
+	public long getCorruptFrames () {
+		return corrupt.get ();
+	}
+
+	public long getDiscardedFrames () {
+		return discarded.get ();
+	}
+
+	public long getListenerErrors () {
+		long errors = listenerErrors.get ();
+		for (TactMailbox m : tact.mailboxes ())
+			errors += m.errors ();
+		return errors;
+	}
+
+	public long getDroppedEvents () {
+		long dropped = 0;
+		for (TactMailbox m : tact.mailboxes ())
+			dropped += m.dropped ();
+		return dropped;
+	}
+
+	public int getQueueDepth () {
+		int depth = 0;
+		for (TactMailbox m : tact.mailboxes ())
+			depth += m.size ();
+		return depth;
+	}
+
+	public float getCycleTime () {
+		final float rate = tact.achievedRate ();
+		return (rate > 0) ? 1000 / rate : 0;
+	}
+
+	public float getRoundTripTime () {
+		return tact.roundTripTime ();
+	}
+
+	/**
+	 * Registers this and the sensors' metrics with the platform MBean 
+	 * server. Failures, e.g. a second <code>Tact</code> on the same 
+	 * port, are reported and otherwise ignored.
+	 */
+	void register (final int port, final Iterable<TactSensor> sensors) {
+		unregister ();
+		this.port = port;
+		register (DOMAIN + ":type=Tact,port=" + port, this);
+		for (TactSensor s : sensors)
+			register (s);
+	}
+
+	/**
+	 * Registers the metrics of a sensor added while updates are running.
+	 */
+	void register (final TactSensor s) {
+		if (port >= 0)
+			register (DOMAIN + ":type=TactSensor,port=" + port + ",pin=" + s.pin (), s.metrics ());
+	}
+
+	private void register (final String name, final Object mbean) {
+		try {
+			final ObjectName objectName = new ObjectName (name);
+			ManagementFactory.getPlatformMBeanServer ().registerMBean (mbean, objectName);
+			registered.add (objectName);
+		}catch (Throwable e) {
+			System.err.println ("[Tact] Could not register metrics " + name + " via JMX: " + e);
+		}
+	}
+
+	/**
+	 * Removes all MBeans registered by <code>register()</code>.
+	 */
+	void unregister () {
+		if (registered.isEmpty ())
+			return;
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+			for (ObjectName name : registered)
+				if (server.isRegistered (name))
+					server.unregisterMBean (name);
+		}catch (Throwable e) {
+			System.err.println ("[Tact] Could not unregister metrics: " + e);
+		}
+		registered.clear ();
+		port = -1;
+	}
+}
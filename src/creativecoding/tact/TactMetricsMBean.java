@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+/**
+ * Management interface of {@link TactMetrics}, exposed via JMX.
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @since 0.3
+ */
+public interface TactMetricsMBean {
+
+	/** Frames decoded since creation. */
+	long getFrames ();
+
+	/** Bytes read from the serial port since creation. */
+	long getBytes ();
+
+	/** Decoded frames per second, over the latest second or the time since then. */
+	float getFrameRate ();
+
+	/** Bytes read per second, over the latest second or the time since then. */
+	float getByteRate ();
+
+	/** Times the sensor greeted again after the handshake, e.g. after a reboot. */
+	long getRestarts ();
+
+	/** Frames with an unknown command type. */
+	long getUnknownCommands ();
+
+	/** Times the decoder realigned to the byte stream after lost or garbled bytes. */
+	long getResyncs ();
+
+	/** Frames discarded as incomplete or garbled. */
+	long getCorruptFrames ();
+
+	/** Frames discarded, e.g. outdated by a sensor reconfiguration. */
+	long getDiscardedFrames ();
+
+	/** Exceptions thrown by <code>tactEvent()</code> or listeners. */
+	long getListenerErrors ();
+
+	/** Events dropped by asynchronous listeners falling behind. */
+	long getDroppedEvents ();
+
+	/** Events waiting for asynchronous listeners. */
+	int getQueueDepth ();
+
+	/** Smoothed duration of an update cycle in milliseconds. */
+	float getCycleTime ();
+
+	/** Smoothed request round-trip time in milliseconds. */
+	float getRoundTripTime ();
+}
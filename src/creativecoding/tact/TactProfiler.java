@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+/**
+ * <p>A <code>TactProfiler</code> records how long <code>TactGraph</code>
+ * render calls take and how many vertices they emit.</p>
+ * 
+ * <p>Each section, such as {@link #SPECTRUM} or {@link #AXIS}, keeps the
+ * most recent {@link #WINDOW} calls in a ring, from which rolling
+ * percentiles are computed on request. Timings are inclusive: a
+ * <code>spectrum()</code> call also counts the <code>graph()</code> and
+ * axis calls it makes.</p>
+ * <pre>
+ * graph.profile(true);
+ * ...
+ * graph.drawProfile(10, 20);
+ * println(graph.profiler().report());
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactGraph#profile(boolean)
+ * @since 0.3
+ */
+public class TactProfiler {
+
+	public static final String SPECTRUM = "spectrum";
+	public static final String BIAS = "bias";
+	public static final String PEAK = "peak";
+	public static final String BINS = "bins";
+	public static final String GRAPH = "graph";
+	public static final String AXIS = "axis";
+	public static final String GUIDES = "guides";
+
+	/**
+	 * Number of most recent calls kept per section.
+	 */
+	public static final int WINDOW = 256;
+
+	private final LinkedHashMap<String, Section> sections = new LinkedHashMap<String, Section> ();
+
+	/**
+	 * Reused buffer for sorting timings.
+	 */
+	private long[] sorted = new long[WINDOW];
+
+	/**
+	 * Records a finished call.
+	 * 
+	 * @param section name of the section.
+	 * @param nanos duration of the call in nanoseconds.
+	 * @param vertices number of vertices emitted by the call.
+	 * @since 0.3
+	 */
+	public void record (final String section, final long nanos, final long vertices) {
+		Section s = sections.get (section);
+		if (s == null) {
+			s = new Section ();
+			sections.put (section, s);
+		}
+
+		final int slot = (int) (s.count % WINDOW);
+		s.nanos[slot] = nanos;
+		s.vertices[slot] = vertices;
+		s.count++;
+	}
+
+	/**
+	 * Rolling percentile of the call duration of a section.
+	 * 
+	 * @param section name of the section.
+	 * @param percentile between 0 and 100.
+	 * @return duration in milliseconds, 0 if nothing has been recorded.
+	 * @since 0.3
+	 */
+	public float percentile (final String section, final float percentile) {
+		final Section s = sections.get (section);
+		if (s == null || s.count == 0)
+			return 0;
+
+		final int n = s.size ();
+		System.arraycopy (s.nanos, 0, sorted, 0, n);
+		Arrays.sort (sorted, 0, n);
+
+		final int index = Math.min (n - 1, Math.max (0, (int) Math.ceil (percentile / 100f * n) - 1));
+		return sorted[index] / 1000000f;
+	}
+
+	/**
+	 * Rolling mean of the vertices emitted per call of a section.
+	 * 
+	 * @param section name of the section.
+	 * @return vertices per call, 0 if nothing has been recorded.
+	 * @since 0.3
+	 */
+	public float vertices (final String section) {
+		final Section s = sections.get (section);
+		if (s == null || s.count == 0)
+			return 0;
+
+		final int n = s.size ();
+		long sum = 0;
+		for (int i=0; i < n; i++)
+			sum += s.vertices[i];
+		return (float) sum / n;
+	}
+
+	/**
+	 * Total number of recorded calls of a section.
+	 * 
+	 * @param section name of the section.
+	 * @return calls as <code>long</code>.
+	 * @since 0.3
+	 */
+	public long count (final String section) {
+		final Section s = sections.get (section);
+		return (s != null) ? s.count : 0;
+	}
+
+	/**
+	 * Names of all recorded sections in order of their first call.
+	 * 
+	 * @return section names.
+	 * @since 0.3
+	 */
+	public String[] sections () {
+		return sections.keySet ().toArray (new String[sections.size ()]);
+	}
+
+	/**
+	 * Summary of all sections, one line each: median, 95th and
+	 * 99th percentile in milliseconds, and vertices per call.
+	 * 
+	 * @return report as <code>String</code>.
+	 * @since 0.3
+	 */
+	public String report () {
+		final StringBuilder b = new StringBuilder ();
+		for (String section : sections.keySet ())
+			b.append (line (section)).append ('\n');
+		return b.toString ();
+	}
+
+	/**
+	 * Summary of one section.
+	 * 
+	 * @param section name of the section.
+	 * @return report line as <code>String</code>.
+	 * @since 0.3
+	 */
+	public String line (final String section) {
+		return String.format (Locale.US, "%-8s p50 %6.3f  p95 %6.3f  p99 %6.3f ms  %6.0f vtx",
+			section, percentile (section, 50), percentile (section, 95), percentile (section, 99), vertices (section));
+	}
+
+	/**
+	 * Discards all recorded calls.
+	 * 
+	 * @since 0.3
+	 */
+	public void clear () {
+		sections.clear ();
+	}
+
+	/**
+	 * Ring of the most recent calls of one section.
+	 */
+	private static class Section {
+		final long[] nanos = new long[WINDOW];
+		final long[] vertices = new long[WINDOW];
+		long count = 0;
+
+		int size () {
+			return (int) Math.min (count, WINDOW);
+		}
+	}
+}
@@ -0,0 +1,285 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+/**
+ * <p>A <code>TactPyramid</code> summarises a long series of values, such as
+ * the bias or peak history of a sensor, on several levels of detail.</p>
+ * 
+ * <p>Level 0 keeps the raw values, every further level groups
+ * <code>fanout</code> buckets of the level below into one bucket that
+ * holds the minimum, maximum and mean of its values. Each level is a
+ * ring of <code>capacity</code> buckets, so the covered time span grows
+ * by the factor <code>fanout</code> per level while memory stays at
+ * <code>levels * capacity</code> buckets. All levels are updated
+ * incrementally with every <code>push()</code>.</p>
+ * 
+ * <p>A query picks the finest level that still covers the requested range
+ * with at most <code>fanout</code> buckets per column, so its cost depends
+ * on the number of columns (pixels) rather than on the number of samples.</p>
+ * <pre>
+ * sensor.pyramid(8, 1024);
+ * ...
+ * int n = sensor.biasPyramid().latest(100000, 300, min, max, mean);
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactSensor#pyramid(int, int)
+ * @since 0.3
+ */
+public class TactPyramid {
+
+	/**
+	 * Default number of lower level buckets grouped per bucket.
+	 */
+	public static final int DEFAULT_FANOUT = 4;
+
+	private final int fanout;
+	private final int capacity;
+
+	/**
+	 * Number of raw samples per bucket for each level.
+	 */
+	private final long[] bucketSize;
+
+	private final float[][] min;
+	private final float[][] max;
+	private final double[][] sum;
+	private final int[][] counts;
+
+	/**
+	 * Total number of values pushed so far.
+	 */
+	private volatile long count = 0;
+
+	/**
+	 * Creates a summary pyramid with the default fanout.
+	 * 
+	 * @param levels number of detail levels, at least 1.
+	 * @param capacity number of buckets per level.
+	 * @since 0.3
+	 */
+	public TactPyramid (final int levels, final int capacity) {
+		this (levels, capacity, DEFAULT_FANOUT);
+	}
+
+	/**
+	 * Creates a summary pyramid.
+	 * 
+	 * @param levels number of detail levels, at least 1.
+	 * @param capacity number of buckets per level.
+	 * @param fanout number of lower level buckets grouped
+	 *        into one bucket of the next level, at least 2.
+	 * @since 0.3
+	 */
+	public TactPyramid (final int levels, final int capacity, final int fanout) {
+		final int l = Math.max (levels, 1);
+
+		this.capacity = Math.max (capacity, 1);
+		this.fanout = Math.max (fanout, 2);
+
+		bucketSize = new long[l];
+		min = new float[l][this.capacity];
+		max = new float[l][this.capacity];
+		sum = new double[l][this.capacity];
+		counts = new int[l][this.capacity];
+
+		bucketSize[0] = 1;
+		for (int i=1; i < l; i++)
+			bucketSize[i] = bucketSize[i-1] * this.fanout;
+	}
+
+	/**
+	 * Adds a value to all levels of the pyramid.
+	 * 
+	 * @param value to add.
+	 * @since 0.3
+	 */
+	public void push (final float value) {
+		for (int l=0; l < bucketSize.length; l++) {
+			final int slot = (int) ((count / bucketSize[l]) % capacity);
+
+			// First value of a new bucket replaces
+			// the bucket that dropped out of the ring
+			if (count % bucketSize[l] == 0) {
+				min[l][slot] = value;
+				max[l][slot] = value;
+				sum[l][slot] = value;
+				counts[l][slot] = 1;
+			}else{
+				if (value < min[l][slot])
+					min[l][slot] = value;
+				if (value > max[l][slot])
+					max[l][slot] = value;
+				sum[l][slot] += value;
+				counts[l][slot]++;
+			}
+		}
+		count++;
+	}
+
+	/**
+	 * Summarises the most recent values.
+	 * 
+	 * @param samples number of most recent values to cover.
+	 * @param columns number of requested result columns.
+	 * @param min target for the per-column minima.
+	 * @param max target for the per-column maxima.
+	 * @param mean target for the per-column means, may be <code>null</code>.
+	 * @return number of filled columns.
+	 * @see #query(long, long, int, float[], float[], float[])
+	 * @since 0.3
+	 */
+	public int latest (final long samples, final int columns, final float[] min, final float[] max, final float[] mean) {
+		final long to = count;
+		return query (to - samples, to, columns, min, max, mean);
+	}
+
+	/**
+	 * Summarises a range of values into columns. The range is given as
+	 * absolute sample positions, 0 being the first value ever pushed and
+	 * <code>count()</code> the position of the next one. Parts of the
+	 * range that are no longer retained by the coarsest level are skipped.
+	 * If the range holds fewer samples than columns, one column per sample
+	 * is returned.
+	 * 
+	 * @param from first sample position (inclusive).
+	 * @param to last sample position (exclusive).
+	 * @param columns number of requested result columns.
+	 * @param min target for the per-column minima.
+	 * @param max target for the per-column maxima.
+	 * @param mean target for the per-column means, may be <code>null</code>.
+	 * @return number of filled columns.
+	 * @since 0.3
+	 */
+	public int query (long from, long to, int columns, final float[] min, final float[] max, final float[] mean) {
+		final long n = count;
+
+		to = Math.min (to, n);
+		from = Math.max (from, oldest (bucketSize.length - 1, n));
+		columns = Math.min (columns, Math.min (min.length, max.length));
+		if (mean != null)
+			columns = Math.min (columns, mean.length);
+
+		if (to <= from || columns <= 0)
+			return 0;
+
+		final long span = to - from;
+		if (span < columns)
+			columns = (int) span;
+
+		// Finest level that still retains the range
+		// and needs at most "fanout" buckets per column.
+		int level = bucketSize.length - 1;
+		for (int l=0; l < bucketSize.length; l++) {
+			if (from >= oldest (l, n) && span / bucketSize[l] <= (long) columns * fanout) {
+				level = l;
+				break;
+			}
+		}
+
+		final long size = bucketSize[level];
+
+		for (int c=0; c < columns; c++) {
+			final long s0 = from + span * c / columns;
+			final long s1 = from + span * (c + 1) / columns;
+
+			float cmin = Float.MAX_VALUE;
+			float cmax = -Float.MAX_VALUE;
+			double csum = 0;
+			long ccount = 0;
+
+			for (long b = s0 / size; b <= (s1 - 1) / size; b++) {
+				final int slot = (int) (b % capacity);
+				if (this.min[level][slot] < cmin)
+					cmin = this.min[level][slot];
+				if (this.max[level][slot] > cmax)
+					cmax = this.max[level][slot];
+				csum += sum[level][slot];
+				ccount += counts[level][slot];
+			}
+
+			min[c] = cmin;
+			max[c] = cmax;
+			if (mean != null)
+				mean[c] = (ccount > 0) ? (float) (csum / ccount) : 0f;
+		}
+
+		return columns;
+	}
+
+	/**
+	 * First sample position still retained by a level.
+	 */
+	private long oldest (final int level, final long n) {
+		if (n == 0)
+			return 0;
+		final long first = ((n - 1) / bucketSize[level]) - capacity + 1;
+		return Math.max (first, 0) * bucketSize[level];
+	}
+
+	/**
+	 * Total number of values pushed since creation or <code>clear()</code>.
+	 * 
+	 * @return pushed values as <code>long</code>.
+	 * @since 0.3
+	 */
+	public long count () {
+		return count;
+	}
+
+	/**
+	 * Number of most recent values that can be queried.
+	 * 
+	 * @return retained span in samples as <code>long</code>.
+	 * @since 0.3
+	 */
+	public long span () {
+		return count - oldest (bucketSize.length - 1, count);
+	}
+
+	/**
+	 * Number of detail levels.
+	 * 
+	 * @return levels as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int levels () {
+		return bucketSize.length;
+	}
+
+	/**
+	 * Number of buckets per level.
+	 * 
+	 * @return capacity as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int capacity () {
+		return capacity;
+	}
+
+	/**
+	 * Discards all values.
+	 * 
+	 * @since 0.3
+	 */
+	public void clear () {
+		count = 0;
+	}
+}
@@ -18,8 +18,13 @@
 
 package creativecoding.tact;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import creativecoding.tact.TactSpectrum;
 import creativecoding.tact.TactConstants;
@@ -70,6 +75,55 @@ public class TactSensor implements TactConstants {
 	 */
 	private int step;
 	
+	/**
+	 * Configuration as requested via the setters. It is applied by 
+	 * the acquisition thread between two requests, or right away if 
+	 * no acquisition is running; see {@link #applyConfig()}.
+	 */
+	private volatile int configStart;
+	private volatile int configReadings;
+	private volatile int configStep;
+	private volatile int configBiasLength;
+	private volatile int configPeakLength;
+	private volatile int configHistory = 0;
+	private volatile int configResets = 0;
+	private volatile int configBiasResets = 0;
+	private volatile int configPeakResets = 0;
+	
+	/**
+	 * State read by <code>loadState()</code>, 
+	 * applied along with the configuration.
+	 */
+	private volatile StoredState configState;
+	
+	/**
+	 * Pyramids requested via <code>pyramid()</code>, 
+	 * applied along with the configuration.
+	 */
+	private volatile Pyramids configPyramids = Pyramids.NONE;
+	
+	/**
+	 * Incremented with every configuration change. Responses to 
+	 * requests of an earlier epoch are discarded.
+	 */
+	private final AtomicInteger configEpoch = new AtomicInteger ();
+	
+	/**
+	 * Configuration epoch and number of resets applied so far. 
+	 * Only accessed by the thread applying the configuration.
+	 */
+	private int appliedEpoch = 0;
+	private int appliedHistory = 0;
+	private int appliedResets = 0;
+	private int appliedBiasResets = 0;
+	private int appliedPeakResets = 0;
+	
+	/**
+	 * Thread acquiring data for this sensor, which then is the only 
+	 * one modifying it; <code>null</code> while there is none.
+	 */
+	volatile Thread acquisition;
+	
 	/**
 	 * List of previously received signal spectra. This buffer thereby 
 	 * stores <code>TactSpectrum</code> instances in chronological order. 
@@ -91,25 +145,122 @@ public class TactSensor implements TactConstants {
 	public TactSpectrum[] buffer;
 	
 	/**
-	 * Bias buffer storing the 1024 most recent values. 
-	 * Structured in chronological order is the latest 
-	 * value located at the end of the list.
+	 * Optional off-heap store for long spectrum histories.
+	 * @see #history(int)
+	 */
+	private volatile TactSpectrumHistory history;
+	
+	/**
+	 * Latency histograms fed by delivered events.
+	 */
+	private final TactLatency latency = new TactLatency ();
+	
+	/**
+	 * Counters and gauges, also exposed via JMX.
+	 */
+	private final TactSensorMetrics metrics = new TactSensorMetrics (this);
+	
+	/**
+	 * Bias buffer storing the most recent values, by default 
+	 * {@link TactConstants#DEFAULT_HISTORY_LENGTH}. Structured 
+	 * in chronological order is the latest value located at 
+	 * the end of the list. Copied from the published history 
+	 * by {@link #refreshHistories()}, which <code>Tact</code> 
+	 * calls for every received frame before dispatching its 
+	 * event, and before every <code>draw()</code>. Code pushing 
+	 * values itself has to call it before reading the array. 
+	 * The array is updated in place; from <code>draw()</code> 
+	 * prefer <code>snapshot()</code> for a consistent view.
 	 * 
 	 * @see #bias()
+	 * @see #historyLength(int)
 	 * @since 0.1
 	 */
 	public float[] bias;
 	
 	/**
-	 * Peak buffer storing the 1024 most recent values. 
-	 * Structured in chronological order is the latest 
-	 * value located at the end of the list.
+	 * Peak buffer storing the most recent values, by default 
+	 * {@link TactConstants#DEFAULT_HISTORY_LENGTH}. Structured 
+	 * in chronological order is the latest value located at 
+	 * the end of the list. Copied from the published history 
+	 * by {@link #refreshHistories()}, like {@link #bias}.
 	 * 
 	 * @see #peak()
+	 * @see #historyLength(int)
 	 * @since 0.1
 	 */
 	public float[] peak;
 	
+	/**
+	 * Version of the state <code>bias</code> and 
+	 * <code>peak</code> have last been refreshed with.
+	 */
+	private long refreshedVersion = -1;
+	
+	/**
+	 * Optional multi-resolution summaries of all bias and peak values, 
+	 * replaced as a pair so that readers never see them mixed.
+	 * @see #pyramid(int, int)
+	 */
+	private volatile Pyramids pyramids = Pyramids.NONE;
+	
+	/**
+	 * Mirrored rings backing the published bias and peak histories. 
+	 * A ring of <code>n</code> values has <code>n * 2</code> slots, 
+	 * each stored twice, so the most recent <code>n</code> values are 
+	 * always contiguous and the serial thread can write <code>n</code> 
+	 * values ahead without touching a published window.
+	 * @see #snapshot()
+	 */
+	private float[] biasRing;
+	private float[] peakRing;
+	
+	/**
+	 * Total number of values written to the rings.
+	 */
+	private long biasCount;
+	private long peakCount;
+	
+	/**
+	 * Lengths of the bias and peak histories held by the rings.
+	 */
+	private int biasLength;
+	private int peakLength;
+	
+	/**
+	 * Most recently published state. It is replaced as a whole once 
+	 * an update is complete, so a single volatile read gives readers 
+	 * a consistent view.
+	 * @see #snapshot()
+	 */
+	private volatile TactSnapshot published;
+	
+	/**
+	 * Copy of <code>buffer</code> shared by the published snapshots, 
+	 * replaced whenever <code>buffer</code> changed. Only accessed 
+	 * by the thread modifying the sensor.
+	 */
+	private TactSpectrum[] spectra;
+	private boolean spectraChanged = true;
+	
+	/**
+	 * Number of published state changes.
+	 * @see #version()
+	 */
+	private final AtomicLong version = new AtomicLong ();
+	
+	/**
+	 * Most recent bias value, also available 
+	 * when no bias history is kept.
+	 */
+	private float biasLatest = 0;
+	
+	/**
+	 * Most recent peak value, also available 
+	 * when no peak history is kept.
+	 */
+	private float peakLatest = 0;
+	
 	/**
 	 * Minimum bias value measured so far.
 	 */
@@ -128,12 +279,44 @@ public class TactSensor implements TactConstants {
 	 */
 	private float peakMax = Float.MIN_VALUE;
 	
+	/**
+	 * Flag if spectra dropping out of <code>buffer</code> 
+	 * are reused for upcoming spectra.
+	 * @see #pooling(boolean)
+	 */
+	private boolean pooling = false;
+	
 	/**
 	 * Sensor data request mode when communicating with the sensor: 
 	 * {@link TactConstants#SPECTRUM}, {@link TactConstants#BIAS}, {@link TactConstants#PEAK}.
 	 */
 	private String mode;
 	
+	/**
+	 * Targeted updates per second, 0 to follow <code>Tact.targetRate</code>.
+	 * @see #rate(float)
+	 */
+	private volatile float rate = 0;
+	
+	/**
+	 * Scheduling priority, higher values are requested first.
+	 * @see #priority(int)
+	 */
+	private volatile int priority = 0;
+	
+	/**
+	 * Point in time (<code>System.nanoTime()</code>) at which the next 
+	 * request is due. Only used by the update thread's scheduler.
+	 */
+	long deadline = 0;
+	
+	/**
+	 * Point in time of the latest response and smoothed 
+	 * interval between responses, both in nanoseconds.
+	 */
+	private long responseTime = 0;
+	private volatile long responseInterval = 0;
+	
 	/**
 	 * Creates a Tact sensor instance.
 	 * 
@@ -152,17 +335,19 @@ public class TactSensor implements TactConstants {
 		this.step = step;
 		this.mode = mode;
 		
-		buffer = new TactSpectrum[bufferSize];
-		bias = new float[1024];
-		peak = new float[1024];
-		
-		final Date date = new Date ();
+		configStart = start;
+		configReadings = readings;
+		configStep = step;
+		configBiasLength = DEFAULT_HISTORY_LENGTH;
+		configPeakLength = DEFAULT_HISTORY_LENGTH;
 		
-		float[] values = new float[readings];
-		Arrays.fill (values, 0f);
+		buffer = new TactSpectrum[bufferSize];
+		bias = new float[DEFAULT_HISTORY_LENGTH];
+		peak = new float[DEFAULT_HISTORY_LENGTH];
+		initRings (DEFAULT_HISTORY_LENGTH, DEFAULT_HISTORY_LENGTH, bias, peak);
+		fillBuffer ();
 		
-		for (int i=0; i < bufferSize; i++)
-			buffer[i] = new TactSpectrum (date.getTime (), values, start, step);
+		publish ();
 	}
 	
 	/**
@@ -276,18 +461,180 @@ public class TactSensor implements TactConstants {
 	 * @since 0.1
 	 */
 	public void push (final TactSpectrum b) {
-		
 		// Update buffer and shift all exisiting entries 
 		// one index forward, to add presnt at the end
 		for (int i=1; i < buffer.length; i++)
 			buffer[i-1] = buffer[i];
 		buffer[buffer.length - 1] = b;
+		spectraChanged = true;
+		
+		// Keep a copy in the long-term history slab
+		if (history != null)
+			history.push (b);
 		
-		pushBias (b.bias ());
-		pushPeak (b.peak ());
+		appendBias (b.bias ());
+		appendPeak (b.peak ());
 		
 		// Level up received counter
 		receivedCount++;
+		
+		publish ();
+	}
+	
+	/**
+	 * Fills <code>buffer</code> with blank spectra of the present 
+	 * shape. Every spectrum gets its own values, allowing them 
+	 * to be recycled individually.
+	 */
+	private void fillBuffer () {
+		final long time = new Date ().getTime ();
+		for (int i=0; i < buffer.length; i++)
+			buffer[i] = new TactSpectrum (time, new float[readings], start, step);
+	}
+	
+	/**
+	 * Requests a configuration change: applied right away unless 
+	 * data is being acquired for this sensor, in which case the 
+	 * acquisition thread applies it before its next request.
+	 */
+	private void reconfigure () {
+		configEpoch.incrementAndGet ();
+		if (acquisition == null)
+			applyConfig ();
+	}
+	
+	/**
+	 * Applies a pending configuration change. Called by the acquisition 
+	 * thread before each request, so that the sensor is never reshaped 
+	 * while a spectrum is being received or pushed. Costs a single 
+	 * volatile read if nothing has changed.
+	 * 
+	 * @return configuration epoch the sensor is in now.
+	 */
+	int applyConfig () {
+		final int epoch = configEpoch.get ();
+		if (epoch == appliedEpoch)
+			return epoch;
+		return applyPending ();
+	}
+	
+	/**
+	 * Slow path of <code>applyConfig()</code>, synchronized as the 
+	 * sketch thread may apply a change the moment acquisition ends.
+	 */
+	private synchronized int applyPending () {
+		final int epoch = configEpoch.get ();
+		appliedEpoch = epoch;
+		
+		if (configBiasLength != biasLength || configPeakLength != peakLength) {
+			// Keep the most recent values
+			initRings (configBiasLength, configPeakLength, 
+				history (biasRing, biasLength, biasCount), history (peakRing, peakLength, peakCount));
+		}
+		
+		final int resets = configResets;
+		if (configStart != start || configReadings != readings || configStep != step || resets != appliedResets) {
+			start = configStart;
+			readings = configReadings;
+			step = configStep;
+			appliedResets = resets;
+			clear ();
+		}
+		
+		// Created for the shape applied above
+		final int capacity = configHistory;
+		if (capacity != appliedHistory) {
+			appliedHistory = capacity;
+			history = (capacity > 0) ? new TactSpectrumHistory (capacity, readings, start, step) : null;
+		}
+		
+		final Pyramids requested = configPyramids;
+		if (requested != pyramids)
+			pyramids = requested;
+		
+		// A loaded state, possibly reset again afterwards
+		final StoredState state = configState;
+		if (state != null) {
+			configState = null;
+			restore (state);
+		}
+		
+		final int biasResets = configBiasResets;
+		if (biasResets != appliedBiasResets) {
+			appliedBiasResets = biasResets;
+			clearBias ();
+		}
+		
+		final int peakResets = configPeakResets;
+		if (peakResets != appliedPeakResets) {
+			appliedPeakResets = peakResets;
+			clearPeak ();
+		}
+		
+		publish ();
+		return epoch;
+	}
+	
+	/**
+	 * Latency histograms of this sensor's frames, from sending 
+	 * a request to delivering the resulting event.
+	 * 
+	 * @return latencies as {@link TactLatency}.
+	 * @since 0.3
+	 */
+	public TactLatency latency () {
+		return latency;
+	}
+	
+	/**
+	 * Counters and gauges of this sensor.
+	 * 
+	 * @return metrics as {@link TactSensorMetrics}.
+	 * @see Tact#metrics()
+	 * @since 0.3
+	 */
+	public TactSensorMetrics metrics () {
+		return metrics;
+	}
+	
+	/**
+	 * Configuration the sensor is requested with, as 
+	 * applied by the latest <code>applyConfig()</code>.
+	 */
+	int activeStart () {
+		return start;
+	}
+	
+	int activeReadings () {
+		return readings;
+	}
+	
+	int activeStep () {
+		return step;
+	}
+	
+	/**
+	 * Provides a spectrum for newly received signal values. In pooling 
+	 * mode the values array of the spectrum that is about to drop out 
+	 * of <code>buffer</code> with the next <code>push()</code> gets 
+	 * overwritten and reused, otherwise a new array is allocated. Used 
+	 * by the tact-core when decoding spectra.
+	 * 
+	 * @param time the point in time when the values have been received.
+	 * @param values array holding the received values.
+	 * @param length number of valid entries in <code>values</code>.
+	 * @return spectrum holding a copy of the values.
+	 * @see #pooling(boolean)
+	 */
+	TactSpectrum obtainSpectrum (final long time, final float[] values, final int length) {
+		if (pooling && buffer.length > 0) {
+			final TactSpectrum recycled = buffer[0];
+			if (recycled != null && recycled.length () == length && recycled.start == start && recycled.step == step) {
+				System.arraycopy (values, 0, recycled.values, 0, length);
+				return new TactSpectrum (time, recycled.values, start, step);
+			}
+		}
+		return new TactSpectrum (time, Arrays.copyOf (values, length), start, step);
 	}
 	
 	/**
@@ -297,11 +644,24 @@ public class TactSensor implements TactConstants {
 	 * @since 0.2
 	 */
 	public void pushBias (final float bias) {
-		// Shift existing bias histrogram
-		for (int i=1; i < this.bias.length; i++)
-			this.bias[i-1] = this.bias[i];
-		// Add present buffer-bias
-		this.bias[this.bias.length - 1] = bias;
+		appendBias (bias);
+		publish ();
+	}
+	
+	/**
+	 * Adds a bias value without publishing it.
+	 */
+	private void appendBias (final float bias) {
+		biasLatest = bias;
+		
+		// Add present buffer-bias, overwriting the 
+		// oldest one rather than shifting the history
+		if (biasLength > 0)
+			biasCount = write (biasRing, biasCount, bias);
+		
+		final TactPyramid pyramid = pyramids.bias;
+		if (pyramid != null)
+			pyramid.push (bias);
 
 		if (biasMax < bias)
 			biasMax = bias;
@@ -317,11 +677,24 @@ public class TactSensor implements TactConstants {
 	 * @since 0.2
 	 */
 	public void pushPeak (final float peak) {
-		// Shift exisitng peak histogram
-		for (int i=1; i < this.peak.length; i++)
-			this.peak[i-1] = this.peak[i];
-		// Add present buffer-peak
-		this.peak[this.peak.length - 1] = peak;
+		appendPeak (peak);
+		publish ();
+	}
+	
+	/**
+	 * Adds a peak value without publishing it.
+	 */
+	private void appendPeak (final float peak) {
+		peakLatest = peak;
+		
+		// Add present buffer-peak, overwriting the 
+		// oldest one rather than shifting the history
+		if (peakLength > 0)
+			peakCount = write (peakRing, peakCount, peak);
+		
+		final TactPyramid pyramid = pyramids.peak;
+		if (pyramid != null)
+			pyramid.push (peak);
 		
 		if (peakMax < peak)
 			peakMax = peak;
@@ -330,6 +703,142 @@ public class TactSensor implements TactConstants {
 			peakMin = peak;
 	}
 	
+	/**
+	 * Writes a value to a mirrored ring.
+	 * 
+	 * @return the new ring count.
+	 */
+	private static long write (final float[] ring, final long count, final float value) {
+		final int slots = ring.length / 2;
+		final int slot = (int) (count % slots);
+		ring[slot] = value;
+		ring[slot + slots] = value;
+		return count + 1;
+	}
+	
+	/**
+	 * Rebuilds the mirrored rings for the given history lengths, 
+	 * filled with the most recent of the given chronological values.
+	 */
+	private void initRings (final int biasLength, final int peakLength, final float[] biasValues, final float[] peakValues) {
+		this.biasLength = biasLength;
+		this.peakLength = peakLength;
+		biasRing = new float[biasLength * 4];
+		peakRing = new float[peakLength * 4];
+		biasCount = 0;
+		peakCount = 0;
+		
+		final float[] b = resize (biasValues, biasLength);
+		final float[] p = resize (peakValues, peakLength);
+		for (int i=0; i < biasLength; i++)
+			biasCount = write (biasRing, biasCount, b[i]);
+		for (int i=0; i < peakLength; i++)
+			peakCount = write (peakRing, peakCount, p[i]);
+	}
+	
+	/**
+	 * Copies the most recent <code>length</code> values 
+	 * of a mirrored ring in chronological order.
+	 */
+	private static float[] history (final float[] ring, final int length, final long count) {
+		final float[] values = new float[length];
+		if (length > 0)
+			System.arraycopy (ring, (int) ((count - length) % (length * 2)), values, 0, length);
+		return values;
+	}
+	
+	/**
+	 * Copies the latest published bias and peak histories into 
+	 * <code>bias</code> and <code>peak</code>, in chronological order. 
+	 * Pushing a value only writes into a ring, so that its cost does 
+	 * not grow with the history length; the arrays are brought up to 
+	 * date here instead, once per frame rather than per value. 
+	 * <code>Tact</code> calls this for every received frame before 
+	 * dispatching its event and for all its sensors before every 
+	 * <code>draw()</code>, so there is no need to call it then. 
+	 * Does nothing if nothing has been published since.
+	 * 
+	 * @see #snapshot()
+	 * @since 0.3
+	 */
+	public synchronized void refreshHistories () {
+		final TactSnapshot s = published;
+		if (s.version == refreshedVersion)
+			return;
+		refreshedVersion = s.version;
+		
+		bias = s.biasHistory (bias.length == s.biasLength () ? bias : null);
+		peak = s.peakHistory (peak.length == s.peakLength () ? peak : null);
+	}
+	
+	/**
+	 * Publishes the present state, to be taken via <code>snapshot()</code>. 
+	 * Only called by the thread modifying the sensor, once an update is 
+	 * complete. The snapshot records the ring counts as they are now, 
+	 * so later writes to the rings do not change what it reports.
+	 */
+	private void publish () {
+		if (spectraChanged) {
+			spectra = buffer.clone ();
+			spectraChanged = false;
+		}
+		published = new TactSnapshot (this, version.incrementAndGet (), receivedCount, spectra, 
+			biasLatest, peakLatest, biasMin, biasMax, peakMin, peakMax, 
+			biasRing, biasLength, biasCount, 
+			peakRing, peakLength, peakCount);
+	}
+	
+	/**
+	 * Pushes the bias and peak value of a single response, 
+	 * published together rather than one after the other.
+	 */
+	void pushBiasPeak (final float bias, final float peak) {
+		appendBias (bias);
+		appendPeak (peak);
+		publish ();
+	}
+	
+	/**
+	 * Consistent view of the sensor's latest state. Other than reading 
+	 * <code>buffer</code>, <code>bias</code> or <code>peak</code> directly, 
+	 * which the serial thread modifies in place, the snapshot is immutable 
+	 * and therefore safe to use from <code>draw()</code>. Taking it is 
+	 * cheap: the serial thread publishes a new snapshot after every 
+	 * update, without copying histories, and this returns the latest.
+	 * <pre>
+	 * void draw() {
+	 *    TactSnapshot s = sensor.snapshot();
+	 *    graph.bias(s);
+	 * }
+	 * </pre>
+	 * 
+	 * @return most recently published state as {@link TactSnapshot}.
+	 * @since 0.3
+	 */
+	public TactSnapshot snapshot () {
+		return published;
+	}
+	
+	/**
+	 * Change counter of this sensor. It increases whenever new values 
+	 * arrived or the sensor has been reconfigured or reset, so comparing 
+	 * it with a previously read version tells cheaply if anything needs 
+	 * to be redrawn.
+	 * <pre>
+	 * if (sensor.version() != drawnVersion) {
+	 *    drawnVersion = sensor.version();
+	 *    ...
+	 * }
+	 * </pre>
+	 * 
+	 * @return change counter as <code>long</code>.
+	 * @see TactGraph#cacheRender
+	 * @since 0.3
+	 */
+	public long version () {
+		return version.get ();
+	}
+	
 	/**
 	 * Data request and transfer mode between implementation and sensor.
 	 * <ul>
@@ -346,6 +855,139 @@ public class TactSensor implements TactConstants {
 		return mode;
 	}
 	
+	/**
+	 * Sets the number of updates per second to request from this sensor. 
+	 * Once any sensor has a rate or <code>Tact.targetRate</code> is set, 
+	 * <code>Tact</code> schedules requests by deadline: the sensor whose 
+	 * next update is due first is requested next, so frequent small 
+	 * requests, such as bias, are not held up behind a round of bulky 
+	 * spectrum requests.
+	 * <pre>
+	 * bias = tact.addSensor(0, BIAS);
+	 * bias.rate(100);
+	 * spectrum = tact.addSensor(1, SPECTRUM);
+	 * spectrum.rate(10);
+	 * </pre>
+	 * 
+	 * @param rate updates per second, <code>0</code> 
+	 *        to follow <code>Tact.targetRate</code>.
+	 * @see #priority(int)
+	 * @see Tact#targetRate
+	 * @since 0.3
+	 */
+	public void rate (final float rate) {
+		this.rate = Math.max (rate, 0);
+	}
+	
+	/**
+	 * Targeted number of updates per second.
+	 * 
+	 * @return updates per second as <code>float</code>, 
+	 *         <code>0</code> if following <code>Tact.targetRate</code>.
+	 * @see #rate(float)
+	 * @since 0.3
+	 */
+	public float rate () {
+		return rate;
+	}
+	
+	/**
+	 * Sets the scheduling priority. Among sensors whose updates are due, 
+	 * the one with the highest priority is requested first; between 
+	 * equal priorities the one due for the longest time. A sensor that 
+	 * has neither its own rate nor a <code>Tact.targetRate</code> is due 
+	 * all the time, so giving it a high priority starves other sensors.
+	 * 
+	 * @param priority scheduling priority, default is <code>0</code>.
+	 * @see #rate(float)
+	 * @since 0.3
+	 */
+	public void priority (final int priority) {
+		this.priority = priority;
+	}
+	
+	/**
+	 * Scheduling priority.
+	 * 
+	 * @return priority as <code>int</code>.
+	 * @see #priority(int)
+	 * @since 0.3
+	 */
+	public int priority () {
+		return priority;
+	}
+	
+	/**
+	 * Number of responses received per second, 
+	 * smoothed over the recent responses.
+	 * 
+	 * @return achieved updates per second as <code>float</code>.
+	 * @see #rate(float)
+	 * @since 0.3
+	 */
+	public float achievedRate () {
+		final long t = responseInterval;
+		return (t > 0) ? 1e9f / t : 0;
+	}
+	
+	/**
+	 * Records the arrival of a response; called by the update thread.
+	 */
+	void responded (final long time) {
+		if (responseTime != 0) {
+			final long interval = time - responseTime;
+			responseInterval = (responseInterval == 0) ? interval : responseInterval + (interval - responseInterval) / 8;
+		}
+		responseTime = time;
+	}
+	
+	/**
+	 * Enables or disables spectrum pooling. By default every received 
+	 * spectrum gets a newly allocated <code>values</code> array. In 
+	 * pooling mode the sensor instead reuses the array of the spectrum 
+	 * that drops out of its <code>buffer</code> for the next received 
+	 * signal, so only a small <code>TactSpectrum</code> header is 
+	 * allocated while receiving. The header itself is not reused, 
+	 * hence <code>time</code> stays final.<br />
+	 * <br />
+	 * Ownership: all spectra in <code>buffer</code> belong to the sensor. 
+	 * A spectrum obtained via <code>latestSpectrum()</code> or 
+	 * <code>buffer</code> stays valid until <code>length()</code> further 
+	 * spectra have been received. To keep one beyond that, retain a copy:
+	 * <pre>
+	 * sensor.pooling(true);
+	 * ...
+	 * void tactEvent(TactEvent e) {
+	 *    kept = e.sensor.latestSpectrum().copy();
+	 * }
+	 * </pre>
+	 * Pooling does not mix with asynchronous delivery: listeners added 
+	 * via <code>addTactListener(o, true)</code> or served by a 
+	 * <code>TactHub</code> run behind the serial thread and may find the 
+	 * values of a spectrum already overwritten by a later signal. Only 
+	 * enable pooling when all listeners are called synchronously, or 
+	 * copy the spectrum on the serial thread before handing it over.
+	 * 
+	 * @param pooling <code>true</code> to recycle spectra.
+	 * @see TactSpectrum#copy()
+	 * @since 0.3
+	 */
+	public void pooling (final boolean pooling) {
+		this.pooling = pooling;
+	}
+	
+	/**
+	 * Flag if spectra are recycled.
+	 * 
+	 * @return <code>true</code> in pooling mode, 
+	 *         otherwise <code>false</code>.
+	 * @see #pooling(boolean)
+	 * @since 0.3
+	 */
+	public boolean isPooling () {
+		return pooling;
+	}
+	
 	/**
 	 * Flag if instance requests {@link #bias} data from sensor. 
 	 * 
@@ -455,6 +1097,143 @@ public class TactSensor implements TactConstants {
 		return buffer.length;
 	}
 	
+	/**
+	 * Sets the number of values kept in the {@link #bias} and 
+	 * {@link #peak} histories. A length of 0 keeps no history at 
+	 * all; <code>bias()</code> and <code>peak()</code> will still 
+	 * return the latest values. Existing history values are kept 
+	 * as far as they fit into the new length.<br />
+	 * <br />
+	 * <code>sensor.historyLength(0); // latest values only</code>
+	 * 
+	 * @param length number of values per history.
+	 * @see #historyLength(int, int)
+	 * @since 0.3
+	 */
+	public void historyLength (final int length) {
+		historyLength (length, length);
+	}
+	
+	/**
+	 * Sets the number of values kept in the {@link #bias} and 
+	 * {@link #peak} histories individually.
+	 * 
+	 * @param biasLength number of bias values kept, 0 for none.
+	 * @param peakLength number of peak values kept, 0 for none.
+	 * @see #historyLength(int)
+	 * @since 0.3
+	 */
+	public void historyLength (final int biasLength, final int peakLength) {
+		configBiasLength = Math.max (biasLength, 0);
+		configPeakLength = Math.max (peakLength, 0);
+		reconfigure ();
+	}
+	
+	/**
+	 * Number of values kept in the {@link #bias} history, as 
+	 * requested. While data is acquired, <code>bias</code> and 
+	 * <code>snapshot()</code> keep the previous length until the 
+	 * acquisition thread applied it before its next request.
+	 * 
+	 * @return bias history length as <code>int</code>.
+	 * @see #historyLength(int)
+	 * @since 0.3
+	 */
+	public int historyLength () {
+		return configBiasLength;
+	}
+	
+	/**
+	 * Resizes a chronological history, keeping its most recent values.
+	 */
+	private static float[] resize (final float[] history, final int length) {
+		if (history.length == length)
+			return history;
+		
+		final float[] resized = new float[length];
+		final int n = Math.min (length, history.length);
+		System.arraycopy (history, history.length - n, resized, length - n, n);
+		return resized;
+	}
+	
+	/**
+	 * Enables the off-heap spectrum history. In addition to the short 
+	 * {@link #buffer} of <code>TactSpectrum</code> instances, every received 
+	 * spectrum will then be copied into one contiguous, direct memory slab 
+	 * which is able to hold thousands of spectra without burdening the 
+	 * garbage collector. Passing 0 disables the history again. While 
+	 * data is acquired, the history is created by the acquisition 
+	 * thread before its next request, for the shape it then requests.<br />
+	 * <br />
+	 * <code>sensor.history(10000);</code>
+	 * 
+	 * @param capacity number of spectra to keep in retrospective.
+	 * @see #history()
+	 * @see TactSpectrumHistory
+	 * @since 0.3
+	 */
+	public void history (final int capacity) {
+		configHistory = Math.max (capacity, 0);
+		reconfigure ();
+	}
+	
+	/**
+	 * Off-heap spectrum history of this sensor.
+	 * 
+	 * @return the history as {@link TactSpectrumHistory}, or <code>null</code> 
+	 *         if it has not been enabled via {@link #history(int)} 
+	 *         or not been applied yet.
+	 * @since 0.3
+	 */
+	public TactSpectrumHistory history () {
+		return history;
+	}
+	
+	/**
+	 * Enables multi-resolution summaries of the bias and peak values. 
+	 * Unlike the fixed {@link #bias} and {@link #peak} arrays, these 
+	 * summaries cover <code>capacity</code> times 4^(levels - 1) values 
+	 * and can be queried at any resolution in time proportional to the 
+	 * requested number of columns. Passing 0 levels disables them again. 
+	 * While data is acquired, the acquisition thread switches to the new 
+	 * summaries before its next request.<br />
+	 * <br />
+	 * <code>sensor.pyramid(8, 1024); // ~16 million values</code>
+	 * 
+	 * @param levels number of detail levels.
+	 * @param capacity number of buckets per level.
+	 * @see #biasPyramid()
+	 * @see #peakPyramid()
+	 * @see TactPyramid
+	 * @since 0.3
+	 */
+	public void pyramid (final int levels, final int capacity) {
+		configPyramids = (levels > 0) ? new Pyramids (new TactPyramid (levels, capacity), new TactPyramid (levels, capacity)) : Pyramids.NONE;
+		reconfigure ();
+	}
+	
+	/**
+	 * Multi-resolution summary of all bias values.
+	 * 
+	 * @return bias summary as {@link TactPyramid}, or <code>null</code> 
+	 *         if it has not been enabled via {@link #pyramid(int, int)}.
+	 * @since 0.3
+	 */
+	public TactPyramid biasPyramid () {
+		return pyramids.bias;
+	}
+	
+	/**
+	 * Multi-resolution summary of all peak values.
+	 * 
+	 * @return peak summary as {@link TactPyramid}, or <code>null</code> 
+	 *         if it has not been enabled via {@link #pyramid(int, int)}.
+	 * @since 0.3
+	 */
+	public TactPyramid peakPyramid () {
+		return pyramids.peak;
+	}
+	
 	/**
 	 * The method used for accessing the most recent processed Tact value set 
 	 * (signal spectrum). The result represents a Tact signal at a specific 
@@ -504,7 +1283,7 @@ public class TactSensor implements TactConstants {
 	 * @since 0.1
 	 */
 	public float bias () {
-		return bias[bias.length - 1];
+		return biasLatest;
 	}
 	
 	/**
@@ -515,7 +1294,7 @@ public class TactSensor implements TactConstants {
 	 * @since 0.1
 	 */
 	public float peak () {
-		return peak[peak.length - 1];
+		return peakLatest;
 	}
 	
 	/**
@@ -593,13 +1372,17 @@ public class TactSensor implements TactConstants {
 	 * Number of measurements taken from the sensor's signal 
 	 * spectrum. This value represents the amount of values that 
 	 * all <code>TactSpectrum</code> instances of this sensor in 
-	 * <code>buffer</code> can store; their <code>length()</code>.
+	 * <code>buffer</code> can store; their <code>length()</code>. 
+	 * A changed value is returned right away, whereas spectra of 
+	 * the new shape only arrive once the acquisition thread has 
+	 * applied it; until then <code>latestSpectrum()</code> tells 
+	 * the shape actually received.
 	 * 
 	 * @see TactSpectrum#length()
 	 * @return 0.1
 	 */
 	public int readings () {
-		return readings;
+		return configReadings;
 	}
 	
 	/**
@@ -617,23 +1400,24 @@ public class TactSensor implements TactConstants {
 	 */
 	public void readings (final int readings) {
 		// Only perform when needed
-		if (this.readings != readings) {
-			this.readings = readings;
-			reset ();
+		if (configReadings != readings) {
+			configReadings = readings;
+			reconfigure ();
 		}
 	}
 	
 	/**
 	 * Start index of the delivered spectrum within the sensor 
 	 * signal. This value can be initially set when adding the 
-	 * sensor.
+	 * sensor. Like <code>readings()</code> it returns the requested 
+	 * value, see <code>TactSpectrum.start</code> for the received one.
 	 * 
 	 * @return Index within the signal where first 
 	 *         measurement is taken as <code>int</code>.
 	 * @since 0.1
 	 */
 	public int start () {
-		return start;
+		return configStart;
 	}
 	
 	/**
@@ -649,21 +1433,22 @@ public class TactSensor implements TactConstants {
 	 */
 	public void start (final int start) {
 		// Only perform when needed
-		if (this.start != start) {
-			this.start = start;
-			reset ();
+		if (configStart != start) {
+			configStart = start;
+			reconfigure ();
 		}
 	}
 	
 	/**
 	 * Step size for which measurments are made. The value -1 
-	 * represents the number of units between all measure points.
+	 * represents the number of units between all measure points. 
+	 * Returns the requested value, like <code>readings()</code>.
 	 * 
 	 * @return Step-width for made measures as <code>int</code>.
 	 * @since 0.1
 	 */
 	public int step () {
-		return step;
+		return configStep;
 	}
 	
 	/**
@@ -680,9 +1465,9 @@ public class TactSensor implements TactConstants {
 	 */
 	public void step (final int step) {
 		// Only perform when needed
-		if (this.step != step) {
-			this.step = step;
-			reset ();
+		if (configStep != step) {
+			configStep = step;
+			reconfigure ();
 		}
 	}
 	
@@ -699,6 +1484,169 @@ public class TactSensor implements TactConstants {
 		return receivedCount;
 	}
 	
+	/**
+	 * Writes the sensor state to a binary stream: configuration, 
+	 * <code>buffer</code>, bias and peak histories as well as the 
+	 * min- and maxima measured so far.
+	 * 
+	 * @param out stream to write to.
+	 * @throws IOException if writing fails.
+	 * @see #loadState(DataInput)
+	 * @since 0.3
+	 */
+	public void saveState (final DataOutput out) throws IOException {
+		out.writeInt (pin);
+		out.writeUTF (mode);
+		out.writeInt (start);
+		out.writeInt (readings);
+		out.writeInt (step);
+		out.writeLong (receivedCount);
+		
+		out.writeFloat (biasLatest);
+		out.writeFloat (peakLatest);
+		out.writeFloat (biasMin);
+		out.writeFloat (biasMax);
+		out.writeFloat (peakMin);
+		out.writeFloat (peakMax);
+		
+		writeFloats (out, history (biasRing, biasLength, biasCount));
+		writeFloats (out, history (peakRing, peakLength, peakCount));
+		
+		out.writeInt (buffer.length);
+		for (int i=0; i < buffer.length; i++) {
+			final TactSpectrum s = buffer[i];
+			out.writeLong (s != null ? s.time : 0);
+			writeFloats (out, s != null ? s.values : new float[0]);
+		}
+	}
+	
+	/**
+	 * Restores a sensor state previously written by 
+	 * {@link #saveState(DataOutput)}. Min- and maxima as well as the 
+	 * bias and peak histories are always restored, fitted into the 
+	 * present history lengths. Spectra are only restored if start, 
+	 * readings and step equal the present configuration; the configuration 
+	 * of this sensor itself is never changed. While data is acquired, the 
+	 * state is applied by the acquisition thread before its next request, 
+	 * like any configuration change.
+	 * 
+	 * @param in stream to read from.
+	 * @return <code>true</code> if spectra have been restored as well, 
+	 *         <code>false</code> if their shape did not match.
+	 * @throws IOException if reading fails.
+	 * @see #saveState(DataOutput)
+	 * @since 0.3
+	 */
+	public boolean loadState (final DataInput in) throws IOException {
+		final StoredState state = new StoredState ();
+		
+		in.readInt ();
+		in.readUTF ();
+		state.start = in.readInt ();
+		state.readings = in.readInt ();
+		state.step = in.readInt ();
+		state.count = in.readLong ();
+		
+		state.biasLatest = in.readFloat ();
+		state.peakLatest = in.readFloat ();
+		state.biasMin = in.readFloat ();
+		state.biasMax = in.readFloat ();
+		state.peakMin = in.readFloat ();
+		state.peakMax = in.readFloat ();
+		
+		state.biasValues = readFloats (in);
+		state.peakValues = readFloats (in);
+		
+		final int n = in.readInt ();
+		state.spectra = new TactSpectrum[n];
+		for (int i=0; i < n; i++) {
+			final long time = in.readLong ();
+			final float[] values = readFloats (in);
+			if (values.length == state.readings)
+				state.spectra[i] = new TactSpectrum (time, values, state.start, state.step);
+		}
+		
+		// Applied by the acquisition thread if there is one, 
+		// as any other change to the sensor's configuration
+		configState = state;
+		reconfigure ();
+		
+		return state.start == configStart && state.readings == configReadings && state.step == configStep;
+	}
+	
+	/**
+	 * Applies a state read by <code>loadState()</code>.
+	 */
+	private void restore (final StoredState state) {
+		biasLatest = state.biasLatest;
+		peakLatest = state.peakLatest;
+		biasMin = state.biasMin;
+		biasMax = state.biasMax;
+		peakMin = state.peakMin;
+		peakMax = state.peakMax;
+		
+		// Only keep the most recent spectra that fit 
+		// into buffer, if their shape still matches
+		if (state.start == start && state.readings == readings && state.step == step) {
+			final int n = state.spectra.length;
+			for (int i=Math.max (n - buffer.length, 0); i < n; i++)
+				if (state.spectra[i] != null)
+					buffer[buffer.length - n + i] = state.spectra[i];
+			receivedCount = state.count;
+			spectraChanged = true;
+		}
+		
+		initRings (biasLength, peakLength, state.biasValues, state.peakValues);
+	}
+	
+	/**
+	 * Sensor state read by <code>loadState()</code>, 
+	 * waiting to be applied.
+	 */
+	private static final class StoredState {
+		int start;
+		int readings;
+		int step;
+		long count;
+		float biasLatest;
+		float peakLatest;
+		float biasMin;
+		float biasMax;
+		float peakMin;
+		float peakMax;
+		float[] biasValues;
+		float[] peakValues;
+		TactSpectrum[] spectra;
+	}
+	
+	/**
+	 * Bias and peak pyramids, created and replaced together.
+	 */
+	private static final class Pyramids {
+		static final Pyramids NONE = new Pyramids (null, null);
+		
+		final TactPyramid bias;
+		final TactPyramid peak;
+		
+		Pyramids (final TactPyramid bias, final TactPyramid peak) {
+			this.bias = bias;
+			this.peak = peak;
+		}
+	}
+	
+	private static void writeFloats (final DataOutput out, final float[] values) throws IOException {
+		out.writeInt (values.length);
+		for (int i=0; i < values.length; i++)
+			out.writeFloat (values[i]);
+	}
+	
+	private static float[] readFloats (final DataInput in) throws IOException {
+		final float[] values = new float[in.readInt ()];
+		for (int i=0; i < values.length; i++)
+			values[i] = in.readFloat ();
+		return values;
+	}
+	
 	/**
 	 * Resets <code>bias()</code> min and max values. Thoses are 
 	 * constantly checked and as the case maybe updated. This functions 
@@ -711,6 +1659,14 @@ public class TactSensor implements TactConstants {
 	 * @since 0.1
 	 */
 	public void resetBias () {
+		configBiasResets++;
+		reconfigure ();
+	}
+	
+	/**
+	 * Carries out a reset of the bias min and max values.
+	 */
+	private void clearBias () {
 		biasMax = Float.MIN_VALUE;
 		biasMin = Float.MAX_VALUE;
 	}
@@ -726,6 +1682,14 @@ public class TactSensor implements TactConstants {
 	 * @since 0.1
 	 */
 	public void resetPeak () {
+		configPeakResets++;
+		reconfigure ();
+	}
+	
+	/**
+	 * Carries out a reset of the peak min and max values.
+	 */
+	private void clearPeak () {
 		peakMax = Float.MIN_VALUE;
 		peakMin = Float.MAX_VALUE;
 	}
@@ -737,6 +1701,9 @@ public class TactSensor implements TactConstants {
 	 * present and previous <code>TactSpectrum</code> instances. 
 	 * Invoking this method will also reset the <code>receivedCount</code>.
 	 * 
+	 * <p>While data is acquired, the reset is carried out by the 
+	 * acquisition thread before its next request.</p>
+	 * 
 	 * @see #receivedCount()
 	 * @see #readings(int)
 	 * @see #start(int)
@@ -744,16 +1711,38 @@ public class TactSensor implements TactConstants {
 	 * @since 0.1
 	 */
 	public void reset () {
+		configResets++;
+		reconfigure ();
+	}
+	
+	/**
+	 * Carries out a reset for the present configuration.
+	 */
+	private void clear () {
 		// Resets min- and maxima that have 
 		// been recorded so far.
-		resetBias ();
-		resetPeak ();
+		clearBias ();
+		clearPeak ();
 		
 		// Clear histograms
-		bias = new float[bias.length];
-		peak = new float[peak.length];
-		// Clear buffer
+		biasLatest = 0;
+		peakLatest = 0;
+		initRings (biasLength, peakLength, new float[0], new float[0]);
+		// Clear buffer, keeping it filled with 
+		// spectra of the present shape
 		buffer = new TactSpectrum[buffer.length];
+		fillBuffer ();
+		spectraChanged = true;
+		
+		final Pyramids p = pyramids;
+		if (p.bias != null)
+			p.bias.clear ();
+		if (p.peak != null)
+			p.peak.clear ();
+		
+		// Recreate history for the present spectrum shape
+		if (history != null)
+			history = new TactSpectrumHistory (history.capacity (), readings, start, step);
 		
 		receivedCount = 0;
 	}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A <code>TactSensorMetrics</code> provides the counters and gauges 
+ * of one sensor, readable via {@link TactSensor#metrics()} and, while 
+ * its <code>Tact</code> is running, as a JMX MBean named 
+ * <code>creativecoding.tact:type=TactSensor,port=&lt;serial index&gt;,pin=&lt;pin&gt;</code>.</p>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactMetrics
+ * @since 0.3
+ */
+public class TactSensorMetrics implements TactSensorMetricsMBean {
+
+	private final TactSensor sensor;
+
+	final AtomicLong frames = new AtomicLong ();
+	final AtomicLong discarded = new AtomicLong ();
+
+	TactSensorMetrics (final TactSensor sensor) {
+		this.sensor = sensor;
+	}
+
+	public int getPin () {
+		return sensor.pin ();
+	}
+
+	public String getMode () {
+		return sensor.mode ();
+	}
+
+	public long getFrames () {
+		return frames.get ();
+	}
+
+	public long getDiscardedFrames () {
+		return discarded.get ();
+	}
+
+	public float getAchievedRate () {
+		return sensor.achievedRate ();
+	}
+
+	public float getTargetRate () {
+		return sensor.rate ();
+	}
+
+	public float getLatencyMedian () {
+		return sensor.latency ().histogram (TactLatency.TOTAL).percentile (50);
+	}
+
+	public float getLatency99 () {
+		return sensor.latency ().histogram (TactLatency.TOTAL).percentile (99);
+	}
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+/**
+ * Management interface of {@link TactSensorMetrics}, exposed via JMX.
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @since 0.3
+ */
+public interface TactSensorMetricsMBean {
+
+	/** Pin of the sensor. */
+	int getPin ();
+
+	/** Request mode of the sensor. */
+	String getMode ();
+
+	/** Frames received since creation, unaffected by <code>reset()</code>. */
+	long getFrames ();
+
+	/** Frames discarded, e.g. outdated by a reconfiguration. */
+	long getDiscardedFrames ();
+
+	/** Responses per second, smoothed. */
+	float getAchievedRate ();
+
+	/** Requested responses per second, 0 if none. */
+	float getTargetRate ();
+
+	/** Median time from request to delivery in milliseconds. */
+	float getLatencyMedian ();
+
+	/** 99th percentile of the time from request to delivery in milliseconds. */
+	float getLatency99 ();
+}
@@ -0,0 +1,303 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+/**
+ * <p>A <code>TactSnapshot</code> is a consistent, immutable view of a
+ * sensor's latest state, meant for reading sensor data from another
+ * thread than the serial thread, such as <code>draw()</code>.</p>
+ * 
+ * <p>After every update the serial thread publishes its state as a new
+ * snapshot, which <code>TactSensor.snapshot()</code> returns. Publishing
+ * never copies histories: the bias and peak histories are read from
+ * rings that the sensor writes ahead of the published window. They stay
+ * valid until the sensor received as many further values as the history
+ * is long, which {@link #isConsistent()} reports.</p>
+ * <pre>
+ * TactSnapshot s = sensor.snapshot();
+ * for (int i=0; i < s.biasLength(); i++)
+ *    point(i, s.biasAt(i) * height);
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactSensor#snapshot()
+ * @since 0.3
+ */
+public class TactSnapshot {
+
+	/**
+	 * Sensor this snapshot has been taken from.
+	 */
+	public final TactSensor sensor;
+	
+	/**
+	 * Change counter of the sensor at the time of the snapshot.
+	 * @see TactSensor#version()
+	 */
+	public final long version;
+
+	/**
+	 * Number of received spectra at the time of the snapshot.
+	 * @see TactSensor#receivedCount()
+	 */
+	public final long receivedCount;
+
+	/**
+	 * Most recent spectrum. In pooling mode it stays unchanged
+	 * only as long as {@link #isConsistent()} is <code>true</code>.
+	 * @see TactSensor#latestSpectrum()
+	 */
+	public final TactSpectrum spectrum;
+
+	private final TactSpectrum[] spectra;
+
+	/**
+	 * Most recent bias value.
+	 * @see TactSensor#bias()
+	 */
+	public final float bias;
+	/**
+	 * Most recent peak value.
+	 * @see TactSensor#peak()
+	 */
+	public final float peak;
+
+	/**
+	 * Minimum bias value measured so far.
+	 * @see TactSensor#minBias()
+	 */
+	public final float minBias;
+	/**
+	 * Maximum bias value measured so far.
+	 * @see TactSensor#maxBias()
+	 */
+	public final float maxBias;
+	/**
+	 * Minimum peak value measured so far.
+	 * @see TactSensor#minPeak()
+	 */
+	public final float minPeak;
+	/**
+	 * Maximum peak value measured so far.
+	 * @see TactSensor#maxPeak()
+	 */
+	public final float maxPeak;
+
+	private final float[] biasRing;
+	private final int biasOffset;
+	private final int biasLength;
+	final long biasCount;
+
+	private final float[] peakRing;
+	private final int peakOffset;
+	private final int peakLength;
+	final long peakCount;
+
+	/**
+	 * Creates a snapshot. Only used by the sensor 
+	 * when it publishes its state.
+	 */
+	TactSnapshot (final TactSensor sensor, final long version, final long receivedCount, final TactSpectrum[] spectra,
+			final float bias, final float peak, final float minBias, final float maxBias, final float minPeak, final float maxPeak,
+			final float[] biasRing, final int biasLength, final long biasCount,
+			final float[] peakRing, final int peakLength, final long peakCount) {
+		this.sensor = sensor;
+		this.version = version;
+		this.receivedCount = receivedCount;
+		this.spectra = spectra;
+		spectrum = spectra[spectra.length - 1];
+		this.bias = bias;
+		this.peak = peak;
+		this.minBias = minBias;
+		this.maxBias = maxBias;
+		this.minPeak = minPeak;
+		this.maxPeak = maxPeak;
+
+		this.biasRing = biasRing;
+		this.biasLength = biasLength;
+		this.biasCount = biasCount;
+		biasOffset = offset (biasLength, biasCount);
+
+		this.peakRing = peakRing;
+		this.peakLength = peakLength;
+		this.peakCount = peakCount;
+		peakOffset = offset (peakLength, peakCount);
+	}
+
+	/**
+	 * Start of the published window within a mirrored ring of
+	 * <code>length * 2</code> slots, stored twice.
+	 */
+	private static int offset (final int length, final long count) {
+		return (length > 0) ? (int) ((count - length) % (length * 2)) : 0;
+	}
+
+	/**
+	 * Number of spectra in the sensor's <code>buffer</code>.
+	 * 
+	 * @return number of spectra as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int spectraLength () {
+		return spectra.length;
+	}
+
+	/**
+	 * Spectrum of the sensor's <code>buffer</code> in chronological 
+	 * order, the latest located at <code>spectraLength() - 1</code>. 
+	 * In pooling mode its values are only unchanged as long as 
+	 * {@link #isConsistent()} is <code>true</code>.
+	 * 
+	 * @param index position within the buffer.
+	 * @return spectrum as {@link TactSpectrum}.
+	 * @since 0.3
+	 */
+	public TactSpectrum spectrumAt (final int index) {
+		return spectra[index];
+	}
+
+	/**
+	 * Number of values in the bias history.
+	 * 
+	 * @return bias history length as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int biasLength () {
+		return biasLength;
+	}
+
+	/**
+	 * Bias history value in chronological order,
+	 * the latest located at <code>biasLength() - 1</code>.
+	 * 
+	 * @param index position within the history.
+	 * @return bias value as <code>float</code>.
+	 * @since 0.3
+	 */
+	public float biasAt (final int index) {
+		return biasRing[biasOffset + index];
+	}
+
+	/**
+	 * Copies the bias history into an array. A new array is created
+	 * if <code>target</code> is <code>null</code> or too short.
+	 * 
+	 * @param target array to copy into, may be <code>null</code>.
+	 * @return array holding the bias history.
+	 * @since 0.3
+	 */
+	public float[] biasHistory (float[] target) {
+		if (target == null || target.length < biasLength)
+			target = new float[biasLength];
+		System.arraycopy (biasRing, biasOffset, target, 0, biasLength);
+		return target;
+	}
+
+	/**
+	 * Number of values in the peak history.
+	 * 
+	 * @return peak history length as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int peakLength () {
+		return peakLength;
+	}
+
+	/**
+	 * Peak history value in chronological order,
+	 * the latest located at <code>peakLength() - 1</code>.
+	 * 
+	 * @param index position within the history.
+	 * @return peak value as <code>float</code>.
+	 * @since 0.3
+	 */
+	public float peakAt (final int index) {
+		return peakRing[peakOffset + index];
+	}
+
+	/**
+	 * Copies the peak history into an array. A new array is created
+	 * if <code>target</code> is <code>null</code> or too short.
+	 * 
+	 * @param target array to copy into, may be <code>null</code>.
+	 * @return array holding the peak history.
+	 * @since 0.3
+	 */
+	public float[] peakHistory (float[] target) {
+		if (target == null || target.length < peakLength)
+			target = new float[peakLength];
+		System.arraycopy (peakRing, peakOffset, target, 0, peakLength);
+		return target;
+	}
+
+	/**
+	 * Checks if this snapshot still reads the values it has been
+	 * taken with. This is the case until the sensor received as many
+	 * new values as its history is long, or - in pooling mode - one
+	 * spectrum less than its <code>buffer</code> holds, as the next
+	 * values are written before they are published. Check it after
+	 * reading to detect a snapshot that has been held too long.
+	 * 
+	 * @return <code>true</code> if all values are unchanged.
+	 * @since 0.3
+	 */
+	public boolean isConsistent () {
+		// Compared with the counts of the latest published 
+		// state, the writer being at most one value ahead
+		final TactSnapshot latest = sensor.snapshot ();
+		if (latest.biasRing == biasRing && latest.biasCount - biasCount >= biasLength)
+			return false;
+		if (latest.peakRing == peakRing && latest.peakCount - peakCount >= peakLength)
+			return false;
+		if (sensor.isPooling () && latest.receivedCount - receivedCount >= sensor.length () - 1)
+			return false;
+
+		return true;
+	}
+
+	/**
+	 * Mirrored bias ring, see <code>biasOffset()</code>.
+	 */
+	float[] biasRing () {
+		return biasRing;
+	}
+
+	/**
+	 * Position of the oldest bias value within <code>biasRing()</code>;
+	 * the history is stored contiguously from there.
+	 */
+	int biasOffset () {
+		return biasOffset;
+	}
+
+	/**
+	 * Mirrored peak ring, see <code>peakOffset()</code>.
+	 */
+	float[] peakRing () {
+		return peakRing;
+	}
+
+	/**
+	 * Position of the oldest peak value within <code>peakRing()</code>;
+	 * the history is stored contiguously from there.
+	 */
+	int peakOffset () {
+		return peakOffset;
+	}
+}
@@ -81,6 +81,24 @@ public class TactSpectrum {
 		end = start + values.length * step;
 	}
 	
+	/**
+	 * Creates an independent copy of this spectrum. Sensors in 
+	 * pooling mode reuse the <code>values</code> of spectra that 
+	 * dropped out of the sensor's <code>buffer</code>; listeners 
+	 * that want to keep a spectrum beyond that, or hand it to 
+	 * another thread, have to retain a copy.
+	 * <pre>
+	 * TactSpectrum kept = e.sensor.latestSpectrum().copy();
+	 * </pre>
+	 * 
+	 * @return copy of this spectrum as <code>TactSpectrum</code>.
+	 * @see TactSensor#pooling(boolean)
+	 * @since 0.3
+	 */
+	public TactSpectrum copy () {
+		return new TactSpectrum (time, values.clone (), start, step);
+	}
+	
 	/**
 	 * Signal maxima in <code>values</code> list.
 	 * 
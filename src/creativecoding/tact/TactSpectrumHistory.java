@@ -0,0 +1,442 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+
+import creativecoding.tact.TactConstants;
+import creativecoding.tact.TactSpectrum;
+
+/**
+ * <p>A <code>TactSpectrumHistory</code> stores a long series of signal
+ * spectra in one contiguous, direct (off-heap) memory slab instead of
+ * one <code>TactSpectrum</code> object per entry.</p>
+ * 
+ * <p>The history is a ring: once <code>capacity()</code> spectra have been
+ * stored, every new spectrum overwrites the oldest one. Entries are
+ * addressed in chronological order, the oldest at index 0 and the
+ * latest at <code>size() - 1</code>. Reading is done through
+ * {@link TactSpectrumHistory.View} instances, which are lightweight
+ * cursors into the slab and can be reused for any number of entries.</p>
+ * 
+ * <p>The update thread keeps writing while the sketch reads, so an 
+ * entry is only valid until <code>capacity()</code> further spectra 
+ * have been pushed. Check {@link View#isValid()} after reading from 
+ * a view and discard what has been read if it returns 
+ * <code>false</code>; the oldest entries are the first to go.</p>
+ * <pre>
+ * sensor.history(10000);
+ * ...
+ * TactSpectrumHistory h = sensor.history();
+ * TactSpectrumHistory.View v = null;
+ * for (int i=0; i < h.size(); i++) {
+ *    v = (v == null) ? h.view(i) : h.view(i, v);
+ *    float peak = v.peak();
+ *    if (v.isValid())
+ *       println(v.time() + " " + peak);
+ * }
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactSensor#history(int)
+ * @since 0.3
+ */
+public class TactSpectrumHistory {
+
+	/**
+	 * Number of bytes per stored reading.
+	 */
+	private static final int BYTES_PER_READING = 4;
+
+	/**
+	 * Number of bytes per stored timestamp.
+	 */
+	private static final int BYTES_PER_TIME = 8;
+
+	/**
+	 * Maximum number of spectra that can be stored.
+	 */
+	private final int capacity;
+
+	/**
+	 * Number of readings per stored spectrum.
+	 */
+	private final int readings;
+
+	/**
+	 * Spectrum start index shared by all stored spectra.
+	 */
+	private final int start;
+
+	/**
+	 * Spectrum step width shared by all stored spectra.
+	 */
+	private final int step;
+
+	/**
+	 * Off-heap slab holding <code>capacity</code> times
+	 * <code>readings</code> signal values.
+	 */
+	private final FloatBuffer values;
+
+	/**
+	 * Off-heap slab holding one timestamp per stored spectrum.
+	 */
+	private final LongBuffer times;
+
+	/**
+	 * Total number of spectra pushed so far.
+	 */
+	private volatile long count = 0;
+
+	/**
+	 * Creates an off-heap spectrum history.
+	 * 
+	 * @param capacity maximum number of stored spectra.
+	 * @param readings number of values per spectrum.
+	 * @param start spectrum start index of all stored spectra.
+	 * @param step spectrum step width of all stored spectra.
+	 * @since 0.3
+	 */
+	public TactSpectrumHistory (final int capacity, final int readings, final int start, final int step) {
+
+		int c = Math.max (capacity, 1);
+		final int r = Math.max (readings, 1);
+
+		// A single direct buffer is addressed by int,
+		// so the slab must not exceed 2 GB.
+		final long limit = Integer.MAX_VALUE / ((long) r * BYTES_PER_READING);
+		if (c > limit) {
+			System.err.println ("[Tact] Spectrum history of " + capacity + " entries exceeds the addressable memory slab, limited to " + limit + ".");
+			c = (int) limit;
+		}
+
+		this.capacity = c;
+		this.readings = r;
+		this.start = start;
+		this.step = step;
+
+		values = ByteBuffer.allocateDirect (c * r * BYTES_PER_READING).order (ByteOrder.nativeOrder ()).asFloatBuffer ();
+		times = ByteBuffer.allocateDirect (c * BYTES_PER_TIME).order (ByteOrder.nativeOrder ()).asLongBuffer ();
+	}
+
+	/**
+	 * Appends a copy of the given spectrum to the history. If the
+	 * spectrum holds more values than <code>readings()</code>, the
+	 * surplus is ignored; missing values are stored as 0.
+	 * 
+	 * @param spectrum to store.
+	 * @since 0.3
+	 */
+	public void push (final TactSpectrum spectrum) {
+		final int slot = (int) (count % capacity);
+		final int offset = slot * readings;
+		final int n = Math.min (readings, spectrum.values.length);
+
+		for (int i=0; i < n; i++)
+			values.put (offset + i, spectrum.values[i]);
+		for (int i=n; i < readings; i++)
+			values.put (offset + i, 0f);
+
+		times.put (slot, spectrum.time);
+
+		// Publish entry after it has been written
+		count++;
+	}
+
+	/**
+	 * Number of spectra currently available, at most <code>capacity()</code>.
+	 * 
+	 * @return number of stored spectra as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int size () {
+		return (int) Math.min (count, capacity);
+	}
+
+	/**
+	 * Maximum number of spectra the history can hold.
+	 * 
+	 * @return capacity as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int capacity () {
+		return capacity;
+	}
+
+	/**
+	 * Number of values per stored spectrum.
+	 * 
+	 * @return readings per spectrum as <code>int</code>.
+	 * @since 0.3
+	 */
+	public int readings () {
+		return readings;
+	}
+
+	/**
+	 * Total number of spectra pushed since creation or
+	 * <code>clear()</code>, including overwritten ones.
+	 * 
+	 * @return pushed spectra as <code>long</code>.
+	 * @since 0.3
+	 */
+	public long count () {
+		return count;
+	}
+
+	/**
+	 * Discards all stored spectra. The memory slab is kept.
+	 * 
+	 * @since 0.3
+	 */
+	public void clear () {
+		count = 0;
+	}
+
+	/**
+	 * Timestamp of a stored spectrum.
+	 * 
+	 * @param index chronological index, 0 being the oldest entry.
+	 * @return time the spectrum was received.
+	 * @since 0.3
+	 */
+	public long time (final int index) {
+		return times.get (slot (index));
+	}
+
+	/**
+	 * Single value of a stored spectrum.
+	 * 
+	 * @param index chronological index, 0 being the oldest entry.
+	 * @param reading position within the spectrum.
+	 * @return signal value as <code>float</code>.
+	 * @since 0.3
+	 */
+	public float value (final int index, final int reading) {
+		return values.get (slot (index) * readings + reading);
+	}
+
+	/**
+	 * Copies the values of a stored spectrum into the given array.
+	 * A new array is created if <code>target</code> is
+	 * <code>null</code> or too short.
+	 * 
+	 * @param index chronological index, 0 being the oldest entry.
+	 * @param target array to copy into, may be <code>null</code>.
+	 * @return array holding the spectrum values.
+	 * @since 0.3
+	 */
+	public float[] values (final int index, float[] target) {
+		if (target == null || target.length < readings)
+			target = new float[readings];
+
+		final int offset = slot (index) * readings;
+		for (int i=0; i < readings; i++)
+			target[i] = values.get (offset + i);
+
+		return target;
+	}
+
+	/**
+	 * Creates a view on a stored spectrum. To iterate over many
+	 * entries without allocation, create one view and reposition
+	 * it with {@link #view(int, View)}.
+	 * 
+	 * @param index chronological index, 0 being the oldest entry.
+	 * @return view on the designated entry.
+	 * @since 0.3
+	 */
+	public View view (final int index) {
+		return view (index, new View ());
+	}
+
+	/**
+	 * Repositions a view on a stored spectrum.
+	 * 
+	 * @param index chronological index, 0 being the oldest entry.
+	 * @param view the view to reuse.
+	 * @return the given view.
+	 * @since 0.3
+	 */
+	public View view (final int index, final View view) {
+		view.entry = entry (index);
+		view.slot = (int) (view.entry % capacity);
+		return view;
+	}
+
+	/**
+	 * Maps a chronological index onto its ring slot.
+	 */
+	private int slot (final int index) {
+		return (int) (entry (index) % capacity);
+	}
+
+	/**
+	 * Maps a chronological index onto the number of the entry 
+	 * since creation, based on a single read of <code>count</code>.
+	 */
+	private long entry (final int index) {
+		final long n = count;
+		final int size = (int) Math.min (n, capacity);
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException ("History index " + index + " out of range [0, " + size + ")");
+
+		return n - size + index;
+	}
+
+	/**
+	 * <p>A flyweight cursor on one spectrum of a
+	 * <code>TactSpectrumHistory</code>. A view holds no signal
+	 * data itself; it reads straight from the history slab and
+	 * refers to a new spectrum once the designated entry has
+	 * been overwritten, see {@link #isValid()}.</p>
+	 * 
+	 * @since 0.3
+	 */
+	public class View {
+
+		/**
+		 * Ring slot of the designated spectrum, 
+		 * and its number since creation.
+		 */
+		private int slot;
+		private long entry;
+
+		private View () {}
+
+		/**
+		 * Checks that the designated spectrum has not been overwritten 
+		 * (or cleared) yet. Values read before this check returns 
+		 * <code>true</code> are consistent.
+		 * 
+		 * @return <code>false</code> if values read may belong to a newer spectrum.
+		 * @since 0.3
+		 */
+		public boolean isValid () {
+			// Entry n + capacity() is written into the same 
+			// slot while count equals n + capacity()
+			final long n = count;
+			return entry < n && n < entry + capacity;
+		}
+
+		/**
+		 * Timestamp when signal was received.
+		 * 
+		 * @return time as <code>long</code>.
+		 * @since 0.3
+		 */
+		public long time () {
+			return times.get (slot);
+		}
+
+		/**
+		 * Single spectrum value.
+		 * 
+		 * @param reading position within the spectrum.
+		 * @return signal value as <code>float</code>.
+		 * @since 0.3
+		 */
+		public float get (final int reading) {
+			return values.get (slot * readings + reading);
+		}
+
+		/**
+		 * Size of the spectrum.
+		 * 
+		 * @return number of values as <code>int</code>.
+		 * @since 0.3
+		 */
+		public int length () {
+			return readings;
+		}
+
+		/**
+		 * Signal maxima of the spectrum.
+		 * 
+		 * @return absolute value for maxima in spectrum.
+		 * @see TactSpectrum#max()
+		 * @since 0.3
+		 */
+		public float max () {
+			return get (maxAt ());
+		}
+
+		/**
+		 * Spectrum index where signal maximum is present.
+		 * 
+		 * @return position of the signal maximum as <code>int</code>.
+		 * @see TactSpectrum#maxAt()
+		 * @since 0.3
+		 */
+		public int maxAt () {
+			final int offset = slot * readings;
+			int index = 0;
+			float max = values.get (offset);
+			for (int i=1; i < readings; i++) {
+				final float v = values.get (offset + i);
+				if (v > max) {
+					max = v;
+					index = i;
+				}
+			}
+			return index;
+		}
+
+		/**
+		 * Signal bias, relative position of signal maximum in spectrum.
+		 * 
+		 * @return relative position of maxima as <code>float</code>.
+		 * @see TactSpectrum#bias()
+		 * @since 0.3
+		 */
+		public float bias () {
+			return (float) maxAt () / readings;
+		}
+
+		/**
+		 * Signal peak, relative amplitude of signal maximum in spectrum.
+		 * 
+		 * @return relative amplitude of maxima as <code>float</code>.
+		 * @see TactSpectrum#peak()
+		 * @since 0.3
+		 */
+		public float peak () {
+			return max () / TactConstants.AMPLITUDE_MAX;
+		}
+
+		/**
+		 * Copies the designated entry into a new, independent
+		 * <code>TactSpectrum</code> instance.
+		 * 
+		 * @return heap copy of the spectrum.
+		 * @since 0.3
+		 */
+		public TactSpectrum toSpectrum () {
+			final float[] v = new float[readings];
+			final int offset = slot * readings;
+			for (int i=0; i < readings; i++)
+				v[i] = values.get (offset + i);
+			return new TactSpectrum (time (), v, start, step);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.util.Map;
+
+/**
+ * <p>A <code>TactTheme</code> is the resolved color palette of a
+ * <code>TactGraph</code>. Its colors are looked up once from a theme map
+ * such as {@link TactGraph#dark} and kept as plain <code>int</code>
+ * values, so rendering does not need any map lookups.</p>
+ * <pre>
+ * graph.theme(new TactTheme(TactGraph.bright));
+ * </pre>
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @see TactGraph#theme(TactTheme)
+ * @since 0.3
+ */
+public class TactTheme {
+
+	/**
+	 * Color used for keys missing in the theme map.
+	 */
+	private static final int MISSING = 0xFF000000;
+
+	/**
+	 * Signal graph stroke color.
+	 * @see TactGraph#THEME_GRAPH
+	 */
+	public final int graph;
+	/**
+	 * Axis guide stroke color.
+	 * @see TactGraph#THEME_AXIS_GUIDE
+	 */
+	public final int axisGuide;
+	/**
+	 * Axis helper stroke color.
+	 * @see TactGraph#THEME_AXIS_HELPER
+	 */
+	public final int axisHelper;
+	/**
+	 * Axis stroke color.
+	 * @see TactGraph#THEME_AXIS_LINE
+	 */
+	public final int axisLine;
+	/**
+	 * Axis label fill color.
+	 * @see TactGraph#THEME_AXIS_LABEL
+	 */
+	public final int axisLabel;
+	/**
+	 * Axis marker stroke color.
+	 * @see TactGraph#THEME_AXIS_MARKER
+	 */
+	public final int axisMarker;
+	/**
+	 * Bin stroke color.
+	 * @see TactGraph#THEME_BIN_STROKE
+	 */
+	public final int binStroke;
+	/**
+	 * Bin fill color.
+	 * @see TactGraph#THEME_BIN_FILL
+	 */
+	public final int binFill;
+	/**
+	 * Diagram title font color.
+	 * @see TactGraph#THEME_TITLE_FILL
+	 */
+	public final int titleFill;
+
+	/**
+	 * Resolves a theme map into a palette. Keys that are
+	 * missing in the map resolve to opaque black.
+	 * 
+	 * @param theme map of <code>TactGraph.THEME_*</code> keys to colors.
+	 * @since 0.3
+	 */
+	public TactTheme (final Map<String, Integer> theme) {
+		graph = resolve (theme, TactGraph.THEME_GRAPH);
+		axisGuide = resolve (theme, TactGraph.THEME_AXIS_GUIDE);
+		axisHelper = resolve (theme, TactGraph.THEME_AXIS_HELPER);
+		axisLine = resolve (theme, TactGraph.THEME_AXIS_LINE);
+		axisLabel = resolve (theme, TactGraph.THEME_AXIS_LABEL);
+		axisMarker = resolve (theme, TactGraph.THEME_AXIS_MARKER);
+		binStroke = resolve (theme, TactGraph.THEME_BIN_STROKE);
+		binFill = resolve (theme, TactGraph.THEME_BIN_FILL);
+		titleFill = resolve (theme, TactGraph.THEME_TITLE_FILL);
+	}
+
+	private static int resolve (final Map<String, Integer> theme, final String key) {
+		final Integer color = theme.get (key);
+		return (color != null) ? color.intValue () : MISSING;
+	}
+
+	/**
+	 * Palette of one renderer, either assigned to it only or resolved 
+	 * from the shared {@link TactGraph#theme}. The shared theme is 
+	 * resolved again when another map is assigned or 
+	 * {@link TactGraph#themeChanged()} has been called.
+	 */
+	static final class Binding {
+
+		private TactTheme palette;
+
+		/**
+		 * Theme map and revision <code>palette</code> has been resolved from.
+		 */
+		private Map<String, Integer> source;
+		private int revision;
+
+		/**
+		 * Flag if the palette has been assigned and 
+		 * the shared theme is ignored.
+		 */
+		private boolean fixed = false;
+
+		/**
+		 * Assigns a palette, or follows the shared 
+		 * theme again for <code>null</code>.
+		 */
+		void assign (final TactTheme palette) {
+			this.palette = palette;
+			source = null;
+			fixed = palette != null;
+		}
+
+		/**
+		 * Present palette, resolved first if the shared theme changed.
+		 */
+		TactTheme resolve () {
+			final Map<String, Integer> theme = TactGraph.theme;
+			final int revision = TactGraph.themeRevision;
+			if (!fixed && (source != theme || this.revision != revision)) {
+				palette = new TactTheme (theme);
+				source = theme;
+				this.revision = revision;
+			}
+			return palette;
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2013 Studio NAND
+ * 
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or (at
+ * your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package creativecoding.tact;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Creates the threads used by <code>Tact</code>, either virtual threads
+ * (JDK 21 and later) or platform threads. Virtual threads are looked up
+ * via reflection, as the library is built for older JDKs.
+ * 
+ * @author Steffen Fiedler, <a href="http://www.nand.io" target="_blank">www.nand.io</a>
+ * @since 0.3
+ */
+final class TactThreads {
+
+	private static Method ofVirtual;
+	private static Method builderName;
+	private static Method builderUnstarted;
+
+	/**
+	 * Whether <code>Thread.onSpinWait()</code> exists (JDK 9 and later).
+	 */
+	private static final boolean SPIN_HINT = hasSpinHint ();
+
+	static {
+		try {
+			ofVirtual = Thread.class.getMethod ("ofVirtual");
+			final Class<?> builder = Class.forName ("java.lang.Thread$Builder");
+			builderName = builder.getMethod ("name", String.class);
+			builderUnstarted = builder.getMethod ("unstarted", Runnable.class);
+		}catch (Exception e) {
+			// JDK without virtual threads
+			ofVirtual = null;
+		}
+	}
+
+	private static boolean hasSpinHint () {
+		try {
+			Thread.class.getMethod ("onSpinWait");
+			return true;
+		}catch (Exception e) {
+			// JDK 8 or older, spinning without hint
+			return false;
+		}
+	}
+
+	private TactThreads () {
+	}
+
+	/**
+	 * Checks if the running JDK supports virtual threads.
+	 */
+	static boolean isVirtualSupported () {
+		return ofVirtual != null;
+	}
+
+	/**
+	 * Tells the CPU that the calling thread is busy-waiting (JDK 9 
+	 * and later), e.g. a PAUSE instruction on x86, which frees 
+	 * resources for a sibling hyper-thread and saves power. Does 
+	 * nothing on older JDKs.
+	 */
+	static void onSpinWait () {
+		if (SPIN_HINT)
+			SpinHint.onSpinWait ();
+	}
+
+	/**
+	 * Holds <code>Thread.onSpinWait()</code> as a constant method handle, 
+	 * which the JIT compiles down to the bare hint rather than a 
+	 * reflective call. Only loaded on JDKs that have the method.
+	 */
+	private static final class SpinHint {
+
+		private static final MethodHandle ON_SPIN_WAIT = lookup ();
+
+		private static MethodHandle lookup () {
+			try {
+				return MethodHandles.lookup ().findStatic (Thread.class, "onSpinWait", MethodType.methodType (void.class));
+			}catch (Exception e) {
+				return null;
+			}
+		}
+
+		static void onSpinWait () {
+			if (ON_SPIN_WAIT != null) {
+				try {
+					ON_SPIN_WAIT.invokeExact ();
+				}catch (Throwable t) {
+					// Spinning without hint
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates an unstarted thread. Virtual threads are always daemon
+	 * threads; platform threads are daemons as requested.
+	 * 
+	 * @param virtual <code>true</code> for a virtual
+	 *        thread, if supported by the JDK.
+	 */
+	static Thread create (final Runnable task, final String name, final boolean virtual, final boolean daemon) {
+		if (virtual && ofVirtual != null) {
+			try {
+				Object builder = ofVirtual.invoke (null);
+				builder = builderName.invoke (builder, name);
+				return (Thread) builderUnstarted.invoke (builder, task);
+			}catch (Exception e) {
+				System.err.println ("[Tact] Could not create virtual thread, using a platform thread instead: " + e);
+			}
+		}
+
+		final Thread thread = new Thread (task, name);
+		thread.setDaemon (daemon);
+		return thread;
+	}
+}